@@ -0,0 +1,94 @@
+package com.amazon.benchmarks;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Compare two JMH JSON result files (-rf json), e.g. from the previous and the current version
+ * Prints time per operation and allocated bytes per operation (gc.alloc.rate.norm) side by side.
+ * Usage: java -cp ... com.amazon.benchmarks.BenchmarkComparison baseline.json current.json
+ */
+public class BenchmarkComparison {
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <current.json>");
+            System.exit(2);
+        }
+        Map<String, JsonObject> baseline = load(args[0]);
+        Map<String, JsonObject> current = load(args[1]);
+
+        System.out.printf("%-70s %14s %14s %8s %14s %14s %8s%n",
+                "Benchmark", "Base score", "Score", "Change", "Base B/op", "B/op", "Change");
+        for (Map.Entry<String, JsonObject> entry : current.entrySet()) {
+            JsonObject result = entry.getValue();
+            JsonObject previous = baseline.get(entry.getKey());
+            double score = primaryScore(result);
+            double allocation = allocationPerOperation(result);
+            double previousScore = previous == null ? Double.NaN : primaryScore(previous);
+            double previousAllocation = previous == null ? Double.NaN : allocationPerOperation(previous);
+            System.out.printf("%-70s %14.3f %14.3f %8s %14.0f %14.0f %8s%n", entry.getKey(),
+                    previousScore, score, change(previousScore, score),
+                    previousAllocation, allocation, change(previousAllocation, allocation));
+        }
+        for (String removed : baseline.keySet()) {
+            if (!current.containsKey(removed)) {
+                System.out.println(removed + ": only in baseline");
+            }
+        }
+    }
+
+    /**
+     * Results keyed by benchmark name plus parameters, e.g. "...getSheetData[rows=1000]"
+     */
+    private static Map<String, JsonObject> load(String filePath) throws IOException {
+        Map<String, JsonObject> results = new LinkedHashMap<>();
+        try (Reader reader = Files.newBufferedReader(Paths.get(filePath))) {
+            JsonArray array = JsonParser.parseReader(reader).getAsJsonArray();
+            for (JsonElement element : array) {
+                JsonObject result = element.getAsJsonObject();
+                StringBuilder key = new StringBuilder(result.get("benchmark").getAsString()
+                        .replace("com.amazon.benchmarks.", ""));
+                if (result.has("params")) {
+                    StringJoiner params = new StringJoiner(",", "[", "]");
+                    for (Map.Entry<String, JsonElement> param : result.getAsJsonObject("params").entrySet()) {
+                        params.add(param.getKey() + "=" + param.getValue().getAsString());
+                    }
+                    key.append(params);
+                }
+                results.put(key.toString(), result);
+            }
+        }
+        return results;
+    }
+
+    private static double primaryScore(JsonObject result) {
+        return result.getAsJsonObject("primaryMetric").get("score").getAsDouble();
+    }
+
+    private static double allocationPerOperation(JsonObject result) {
+        JsonObject secondary = result.getAsJsonObject("secondaryMetrics");
+        if (secondary == null || !secondary.has(ALLOCATION_METRIC)) {
+            return Double.NaN;
+        }
+        return secondary.getAsJsonObject(ALLOCATION_METRIC).get("score").getAsDouble();
+    }
+
+    private static String change(double before, double after) {
+        if (Double.isNaN(before) || Double.isNaN(after) || before == 0) {
+            return "n/a";
+        }
+        return String.format("%+.1f%%", (after - before) / before * 100);
+    }
+}
@@ -0,0 +1,152 @@
+package com.amazon.benchmarks;
+
+import com.google.gson.stream.JsonWriter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+/**
+ * Generated input files for the utility benchmarks
+ * Files go to benchmark.fixtures.dir (default target/jmh-fixtures) and are reused between runs,
+ * since a 100k-row workbook or a 1M-line file takes longer to write than to benchmark.
+ * Content is deterministic, so results from different versions run over identical input.
+ */
+public class BenchmarkFixtures {
+    public static final String SHEET_NAME = "TestData";
+    public static final String[] COLUMNS = {"testCaseId", "searchTerm", "category", "quantity", "expectedPrice"};
+    private static final String[] CATEGORIES = {"Electronics", "Books", "Home", "Toys", "Grocery"};
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Workbook with a header row and the given number of data rows
+     */
+    public static String excelFile(int rows) throws IOException {
+        Path file = fixture("testdata_" + rows + ".xlsx");
+        if (Files.exists(file)) {
+            return file.toString();
+        }
+        // Streaming workbook keeps only a window of rows in memory while writing
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(1000);
+             OutputStream outputStream = Files.newOutputStream(temporary(file))) {
+            Sheet sheet = workbook.createSheet(SHEET_NAME);
+            Row header = sheet.createRow(0);
+            for (int colIndex = 0; colIndex < COLUMNS.length; colIndex++) {
+                header.createCell(colIndex).setCellValue(COLUMNS[colIndex]);
+            }
+            for (int rowIndex = 1; rowIndex <= rows; rowIndex++) {
+                String[] values = record(rowIndex);
+                Row row = sheet.createRow(rowIndex);
+                for (int colIndex = 0; colIndex < values.length; colIndex++) {
+                    row.createCell(colIndex).setCellValue(values[colIndex]);
+                }
+            }
+            workbook.write(outputStream);
+            workbook.dispose();
+        }
+        return publish(file);
+    }
+
+    /**
+     * Top-level JSON array with the given number of flat objects
+     */
+    public static String jsonFile(int records) throws IOException {
+        Path file = fixture("testdata_" + records + ".json");
+        if (Files.exists(file)) {
+            return file.toString();
+        }
+        try (JsonWriter writer = new JsonWriter(Files.newBufferedWriter(temporary(file), StandardCharsets.UTF_8))) {
+            writer.beginArray();
+            for (int index = 1; index <= records; index++) {
+                String[] values = record(index);
+                writer.beginObject();
+                for (int colIndex = 0; colIndex < COLUMNS.length; colIndex++) {
+                    writer.name(COLUMNS[colIndex]).value(values[colIndex]);
+                }
+                writer.endObject();
+            }
+            writer.endArray();
+        }
+        return publish(file);
+    }
+
+    /**
+     * Log-like text file with the given number of lines; none contains {@link #absentText()}
+     */
+    public static String textFile(int lines) throws IOException {
+        Path file = fixture("log_" + lines + ".txt");
+        if (Files.exists(file)) {
+            return file.toString();
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary(file), StandardCharsets.UTF_8)) {
+            for (int index = 1; index <= lines; index++) {
+                String[] values = record(index);
+                writer.write("2024-01-01 12:00:00 INFO [worker-" + (index % 8) + "] " + values[0]
+                        + " searched '" + values[1] + "' in " + values[2] + ", quantity " + values[3]);
+                writer.newLine();
+            }
+        }
+        return publish(file);
+    }
+
+    /**
+     * Properties file with the given number of keys, named {@link #propertyKey(int)}
+     */
+    public static String propertiesFile(int keys) throws IOException {
+        Path file = fixture("config_" + keys + ".properties");
+        if (Files.exists(file)) {
+            return file.toString();
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary(file), StandardCharsets.ISO_8859_1)) {
+            for (int index = 0; index < keys; index++) {
+                writer.write(propertyKey(index) + "=" + record(index + 1)[1]);
+                writer.newLine();
+            }
+        }
+        return publish(file);
+    }
+
+    public static String propertyKey(int index) {
+        return "section" + (index % 100) + ".setting" + index;
+    }
+
+    /**
+     * Text that appears in no fixture line, so a search has to read the whole file
+     */
+    public static String absentText() {
+        return "NoSuchElementException";
+    }
+
+    private static String[] record(int index) {
+        return new String[]{
+                "TC_" + index,
+                "product " + Integer.toHexString(index * 31),
+                CATEGORIES[index % CATEGORIES.length],
+                String.valueOf(1 + index % 5),
+                (index % 1000) + "." + (index % 100)
+        };
+    }
+
+    private static Path fixture(String fileName) throws IOException {
+        Path directory = Paths.get(System.getProperty("benchmark.fixtures.dir", "target/jmh-fixtures"));
+        Files.createDirectories(directory);
+        return directory.resolve(fileName);
+    }
+
+    private static Path temporary(Path file) {
+        return file.resolveSibling(file.getFileName() + ".tmp");
+    }
+
+    /**
+     * Move the finished file into place, so an interrupted generation is never reused
+     */
+    private static String publish(Path file) throws IOException {
+        Files.move(temporary(file), file, StandardCopyOption.REPLACE_EXISTING);
+        return file.toString();
+    }
+}
@@ -0,0 +1,37 @@
+package com.amazon.benchmarks;
+
+import com.amazon.utilities.ExcelUtility;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of reading a whole sheet with ExcelUtility.getSheetData
+ * XSSF holds the full workbook in memory, so the 1M-row size needs a large heap:
+ * mvn test -Pbenchmark -Djmh.args="ExcelUtility -p rows=1000000 -jvmArgs -Xmx8g"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ExcelUtilityBenchmark {
+    @Param({"1000", "100000"})
+    public int rows;
+
+    private ExcelUtility excelUtility;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        excelUtility = new ExcelUtility(BenchmarkFixtures.excelFile(rows));
+    }
+
+    @Benchmark
+    public List<Map<String, String>> getSheetData() throws IOException {
+        return excelUtility.getSheetData(BenchmarkFixtures.SHEET_NAME);
+    }
+}
@@ -0,0 +1,48 @@
+package com.amazon.benchmarks;
+
+import com.amazon.utilities.JsonUtility;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of JsonUtility.jsonArrayToList, with and without parsing the file first
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class JsonUtilityBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int records;
+
+    private String filePath;
+    private JsonUtility parsed;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        filePath = BenchmarkFixtures.jsonFile(records);
+        parsed = new JsonUtility(filePath);
+    }
+
+    /**
+     * Conversion of an already parsed tree
+     */
+    @Benchmark
+    public List<Map<String, String>> jsonArrayToList() {
+        return parsed.jsonArrayToList();
+    }
+
+    /**
+     * Parse plus conversion, as a data provider does it
+     */
+    @Benchmark
+    public List<Map<String, String>> parseAndConvert() throws IOException {
+        return new JsonUtility(filePath).jsonArrayToList();
+    }
+}
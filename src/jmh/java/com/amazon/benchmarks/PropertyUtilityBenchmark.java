@@ -0,0 +1,52 @@
+package com.amazon.benchmarks;
+
+import com.amazon.utilities.PropertyUtility;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of loading a property file and of single and bulk lookups in PropertyUtility
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class PropertyUtilityBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int keys;
+
+    private String filePath;
+    private PropertyUtility propertyUtility;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        filePath = BenchmarkFixtures.propertiesFile(keys);
+        propertyUtility = new PropertyUtility(filePath);
+    }
+
+    @Benchmark
+    public String getProperty() {
+        return propertyUtility.getProperty(BenchmarkFixtures.propertyKey(ThreadLocalRandom.current().nextInt(keys)));
+    }
+
+    @Benchmark
+    public String getPropertyMissingWithDefault() {
+        return propertyUtility.getProperty("no.such.key", "default");
+    }
+
+    @Benchmark
+    public Map<String, String> getAllProperties() {
+        return propertyUtility.getAllProperties();
+    }
+
+    @Benchmark
+    public PropertyUtility load() throws IOException {
+        return new PropertyUtility(filePath);
+    }
+}
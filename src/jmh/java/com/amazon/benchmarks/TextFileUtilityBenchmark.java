@@ -0,0 +1,43 @@
+package com.amazon.benchmarks;
+
+import com.amazon.utilities.TextFileUtility;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of random line reads and of a full-file search in TextFileUtility
+ * readLine uses the cached line-offset index, which is built in the first warmup call
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class TextFileUtilityBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int lines;
+
+    private String filePath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        filePath = BenchmarkFixtures.textFile(lines);
+    }
+
+    @Benchmark
+    public String readLine() throws IOException {
+        return TextFileUtility.readLine(filePath, 1 + ThreadLocalRandom.current().nextInt(lines));
+    }
+
+    /**
+     * Search for text that isn't there, the worst case
+     */
+    @Benchmark
+    public boolean searchInFileMiss() throws IOException {
+        return TextFileUtility.searchInFile(filePath, BenchmarkFixtures.absentText());
+    }
+}
@@ -3,69 +3,242 @@ package com.amazon.base;
 import io.github.bonigarcia.wdm.WebDriverManager;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeDriverService;
+import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
-import com.amazon.utilities.PropertyUtility;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.remote.service.DriverService;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+import com.amazon.utilities.BrowserReaper;
+import com.amazon.utilities.CircuitBreaker;
+import com.amazon.utilities.CommandEventListener;
+import com.amazon.utilities.CommandTimingListener;
+import com.amazon.utilities.FrameworkConfig;
+import com.amazon.utilities.ResourceGovernor;
+import com.amazon.utilities.RunTimeline;
+import com.amazon.utilities.StandInShopServer;
+import com.amazon.utilities.TrafficRecorder;
 import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Base class for setting up WebDriver and browser configuration
+ * Each thread gets its own driver, so data-driven and parallel tests don't share a browser
  */
 public class BaseTest {
+    private static final ThreadLocal<WebDriver> threadDriver = new ThreadLocal<>();
+    private static final ThreadLocal<DriverService> threadService = new ThreadLocal<>();
+    private static final AtomicInteger nextPortOffset = new AtomicInteger();
+    private static final int HEADLESS_WIDTH = 1920;
+    private static final int HEADLESS_HEIGHT = 1080;
+    /**
+     * Most recently started driver, kept for single-threaded callers that read the field directly
+     * @deprecated not meaningful when tests run in parallel; use {@link #getDriver()}
+     */
+    @Deprecated
     public static WebDriver driver;
-    protected PropertyUtility propertyUtility;
 
     /**
      * Initialize WebDriver based on browser type
+     * A browser the current thread kept open (e.g. for a rerun) is reused instead of starting a new one,
+     * then a warm browser from BrowserPool; a new browser is started only if neither is available.
+     * Skips the test without starting a browser while the site's circuit breaker is open.
      */
     public void initializeDriver(String browserType) throws IOException {
-        propertyUtility = new PropertyUtility("src/test/resources/config/config.properties");
-        String browser = browserType != null ? browserType : propertyUtility.getProperty("browser", "chrome");
-        
+        CircuitBreaker.forUrl(getBaseURL()).ensureClosed();
+        ResourceGovernor governor = ResourceGovernor.shared();
+        if (threadDriver.get() != null) {
+            if (!governor.isRecycleRequested(getDriverServicePort())) {
+                return;
+            }
+            // Kept browser grew past governor.maxBrowserRssMb; replace it
+            quitDriver();
+        }
+        String browser = browserType != null ? browserType : FrameworkConfig.get().getProperty("browser", "chrome");
+
+        BrowserSession session;
+        try (RunTimeline.Span span = RunTimeline.begin("browser", "get browser").arg("browser", browser)) {
+            // A pooled browser comes with the session slot it was started in
+            session = BrowserPool.shared().take(browser);
+            span.arg("fromPool", session != null);
+        }
+        if (session == null) {
+            try (RunTimeline.Span span = RunTimeline.begin("browser", "wait for session slot")) {
+                if (!governor.tryAcquireSession()) {
+                    // Idle pooled browsers this test can't use (e.g. another browser type) hand back a slot
+                    BrowserPool.shared().quitIdle(1);
+                    governor.acquireSession();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for a browser session slot", e);
+            }
+            try {
+                session = startBrowser(browser);
+            } catch (RuntimeException e) {
+                governor.releaseSession();
+                throw e;
+            }
+        }
+        threadDriver.set(session.getDriver());
+        threadService.set(session.getService());
+        driver = session.getDriver();
+    }
+
+    /**
+     * Start and configure a new browser with its own driver service
+     * Safe to call from any thread; BrowserPool uses it to start browsers ahead of demand
+     */
+    static BrowserSession startBrowser(String browser) {
+        try (RunTimeline.Span span = RunTimeline.begin("browser", "launch " + browser)) {
+            return launchBrowser(browser);
+        }
+    }
+
+    private static BrowserSession launchBrowser(String browser) {
+        FrameworkConfig config = FrameworkConfig.get();
+        boolean headless = config.getBoolean("headless", false);
+        WebDriver newDriver;
+        DriverService service;
         switch (browser.toLowerCase()) {
-            case "chrome":
-                WebDriverManager.chromedriver().setup();
-                driver = new ChromeDriver();
-                break;
             case "firefox":
                 WebDriverManager.firefoxdriver().setup();
-                driver = new FirefoxDriver();
+                GeckoDriverService geckoService = new GeckoDriverService.Builder().usingPort(nextDriverPort()).build();
+                FirefoxOptions firefoxOptions = new FirefoxOptions();
+                if (headless) {
+                    firefoxOptions.addArguments("-headless", "--width=" + HEADLESS_WIDTH, "--height=" + HEADLESS_HEIGHT);
+                }
+                service = geckoService;
+                newDriver = new FirefoxDriver(geckoService, firefoxOptions);
                 break;
             case "edge":
                 WebDriverManager.edgedriver().setup();
-                driver = new EdgeDriver();
+                EdgeDriverService edgeService = new EdgeDriverService.Builder().usingPort(nextDriverPort()).build();
+                EdgeOptions edgeOptions = new EdgeOptions();
+                if (headless) {
+                    edgeOptions.addArguments("--headless=new", "--window-size=" + HEADLESS_WIDTH + "," + HEADLESS_HEIGHT);
+                }
+                service = edgeService;
+                newDriver = new EdgeDriver(edgeService, edgeOptions);
                 break;
+            case "chrome":
             default:
                 WebDriverManager.chromedriver().setup();
-                driver = new ChromeDriver();
+                ChromeDriverService chromeService = new ChromeDriverService.Builder().usingPort(nextDriverPort()).build();
+                ChromeOptions chromeOptions = new ChromeOptions();
+                if (headless) {
+                    chromeOptions.addArguments("--headless=new", "--window-size=" + HEADLESS_WIDTH + "," + HEADLESS_HEIGHT);
+                }
+                service = chromeService;
+                newDriver = new ChromeDriver(chromeService, chromeOptions);
+        }
+
+        if (!headless) {
+            // A headless browser has no screen to maximize to; it gets a fixed window size instead
+            newDriver.manage().window().maximize();
+        }
+        newDriver.manage().timeouts().implicitlyWait(Duration.ofSeconds(config.getInt("implicitWait", 10)));
+        newDriver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(config.getInt("pageLoadTimeout", 20)));
+        // Record or replay page traffic (traffic.mode) from the first navigation on
+        TrafficRecorder.attach(newDriver);
+        List<WebDriverListener> listeners = new ArrayList<>();
+        if (config.getBoolean("perf.commandTiming", false)) {
+            // Time every driver call for the performance gate (see FrameworkPerformanceTest)
+            listeners.add(new CommandTimingListener());
+        }
+        if (CommandEventListener.isRecording()) {
+            // A flight recording is running: show every driver call on its timeline
+            listeners.add(new CommandEventListener());
         }
+        if (!listeners.isEmpty()) {
+            newDriver = new EventFiringDecorator<>(listeners.toArray(new WebDriverListener[0])).decorate(newDriver);
+        }
+        BrowserSession session = new BrowserSession(browser, newDriver, service);
+        ResourceGovernor.shared().registerBrowser(session.getServicePort());
+        return session;
+    }
 
-        driver.manage().window().maximize();
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-        driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(20));
+    /**
+     * Pick the next free port for a driver service
+     * With driver.portRangeStart set (fork mode gives every JVM its own range), ports are taken
+     * round-robin from [start, start + driver.portRangeSize); otherwise 0 lets Selenium pick any free port
+     */
+    static int nextDriverPort() {
+        FrameworkConfig config = FrameworkConfig.get();
+        int rangeStart = config.getInt("driver.portRangeStart", 0);
+        if (rangeStart <= 0) {
+            return 0;
+        }
+        int rangeSize = Math.max(1, config.getInt("driver.portRangeSize", 100));
+        for (int attempt = 0; attempt < rangeSize; attempt++) {
+            int port = rangeStart + Math.floorMod(nextPortOffset.getAndIncrement(), rangeSize);
+            try (ServerSocket socket = new ServerSocket(port, 1, InetAddress.getLoopbackAddress())) {
+                return port;
+            } catch (IOException e) {
+                // Port in use, try the next one
+            }
+        }
+        throw new IllegalStateException("No free driver port in range " + rangeStart + "-" + (rangeStart + rangeSize - 1));
     }
 
     /**
-     * Get WebDriver instance
+     * Get WebDriver instance of the current thread
      */
     public static WebDriver getDriver() {
-        return driver;
+        return threadDriver.get();
     }
 
     /**
-     * Close browser
+     * Close browser of the current thread
      */
     public void closeBrowser() {
-        if (driver != null) {
-            driver.quit();
+        quitDriver();
+    }
+
+    /**
+     * Quit WebDriver of the current thread, if any
+     * The thread is free to start its next browser right away; quit runs in the background (see BrowserReaper)
+     */
+    public static void quitDriver() {
+        WebDriver currentDriver = threadDriver.get();
+        int port = getDriverServicePort();
+        threadService.remove();
+        if (currentDriver != null) {
+            threadDriver.remove();
+            if (driver == currentDriver) {
+                driver = null;
+            }
+            BrowserReaper.shared().quit(currentDriver, port);
+            ResourceGovernor.shared().releaseSession();
         }
     }
 
+    /**
+     * Get port of the current thread's driver service (chromedriver etc.), or -1 if no browser is open
+     */
+    public static int getDriverServicePort() {
+        DriverService service = threadService.get();
+        return service != null && service.getUrl() != null ? service.getUrl().getPort() : -1;
+    }
+
     /**
      * Get base URL
+     * With standInShop.enabled this is the local stand-in shop, started on first use
      */
-    public String getBaseURL() throws IOException {
-        return propertyUtility.getProperty("baseURL", "https://www.amazon.com");
+    public String getBaseURL() {
+        if (StandInShopServer.isEnabled()) {
+            return StandInShopServer.shared().getBaseUrl();
+        }
+        return FrameworkConfig.get().getProperty("baseURL", "https://www.amazon.com");
     }
 }
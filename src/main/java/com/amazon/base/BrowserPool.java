@@ -0,0 +1,216 @@
+package com.amazon.base;
+
+import com.amazon.utilities.BrowserReaper;
+import com.amazon.utilities.FrameworkConfig;
+import com.amazon.utilities.ResourceGovernor;
+import org.openqa.selenium.WebDriverException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Browsers started ahead of demand on background threads and handed to tests as they start
+ * warmUp (called at @BeforeSuite and when Cucumber starts) launches browserPool.size browsers,
+ * default dataproviderthreadcount. With browserPool.refill, every browser taken is replaced in
+ * the background, so later tests find a warm browser too. browserPool.size=0 turns the pool off.
+ * Each pooled browser holds a ResourceGovernor session slot from before it starts, handed to the test
+ * that takes it; browsers are only warmed up while slots are free, and idle ones are quit when the
+ * governor lowers its limit.
+ */
+public class BrowserPool {
+    private static final long TAKE_TIMEOUT_MS = 60000;
+    private static volatile BrowserPool shared;
+
+    private final String browser;
+    private final int size;
+    private final Deque<BrowserSession> idle = new ArrayDeque<>();
+    private final AtomicInteger threadNumber = new AtomicInteger();
+    private int starting;
+    private int claimed;
+    private boolean closed;
+
+    private BrowserPool(String browser, int size) {
+        this.browser = browser;
+        this.size = size;
+        ResourceGovernor.shared().onSurplus(this::quitIdle);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::closeNow, "browser-pool-shutdown"));
+    }
+
+    /**
+     * Get pool shared by the whole JVM, for the configured browser
+     */
+    public static BrowserPool shared() {
+        BrowserPool pool = shared;
+        if (pool == null) {
+            synchronized (BrowserPool.class) {
+                pool = shared;
+                if (pool == null) {
+                    FrameworkConfig config = FrameworkConfig.get();
+                    int size = config.getInt("browserPool.size", config.getInt("dataproviderthreadcount", 1));
+                    pool = new BrowserPool(config.getProperty("browser", "chrome"), Math.max(0, size));
+                    shared = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Start browsers in the background until idle plus starting browsers reach the pool size
+     * or the governor has no session slot left
+     */
+    public synchronized void warmUp() {
+        if (closed) {
+            return;
+        }
+        ResourceGovernor governor = ResourceGovernor.shared();
+        while (idle.size() + starting < size && governor.tryAcquireSession()) {
+            starting++;
+            Thread thread = new Thread(this::startOne, "browser-warmup-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    private void startOne() {
+        BrowserSession session = null;
+        try {
+            session = BaseTest.startBrowser(browser);
+        } catch (RuntimeException e) {
+            System.err.println("Browser warm-up failed: " + e.getMessage().split("\n")[0]);
+            ResourceGovernor.shared().releaseSession();
+        }
+        synchronized (this) {
+            starting--;
+            if (session != null && !closed) {
+                idle.addLast(session);
+                session = null;
+            }
+            notifyAll();
+        }
+        if (session != null) {
+            discard(session);
+        }
+    }
+
+    /**
+     * Take a warm browser, or null if the test should start its own
+     * Waits for a browser that is already starting, as long as no other test has claimed it.
+     * The browser's session slot passes to the caller, who releases it by quitting the browser.
+     */
+    public BrowserSession take(String requestedBrowser) {
+        if (size == 0 || !browser.equalsIgnoreCase(requestedBrowser)) {
+            return null;
+        }
+        boolean refill = FrameworkConfig.get().getBoolean("browserPool.refill", true);
+        BrowserSession session;
+        synchronized (this) {
+            if (refill) {
+                // Use slots freed since the last take, so this test can claim the browser started with it
+                warmUp();
+            }
+            if (idle.isEmpty() && starting > claimed) {
+                claimed++;
+                try {
+                    long deadline = System.currentTimeMillis() + TAKE_TIMEOUT_MS;
+                    long remaining = TAKE_TIMEOUT_MS;
+                    while (idle.isEmpty() && starting > 0 && remaining > 0 && !closed) {
+                        wait(remaining);
+                        remaining = deadline - System.currentTimeMillis();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    claimed--;
+                }
+            }
+            session = idle.pollFirst();
+            if (refill) {
+                warmUp();
+            }
+        }
+        if (session != null && !isAlive(session)) {
+            discard(session);
+            return null;
+        }
+        return session;
+    }
+
+    /**
+     * Quit up to count idle browsers in the background, freeing their session slots
+     * Returns the number quit
+     */
+    public int quitIdle(int count) {
+        List<BrowserSession> surplus = new ArrayList<>();
+        synchronized (this) {
+            while (surplus.size() < count && !idle.isEmpty()) {
+                surplus.add(idle.pollLast());
+            }
+        }
+        if (!surplus.isEmpty()) {
+            System.out.println("Browser pool: quitting " + surplus.size() + " idle browser(s) to free session slots");
+        }
+        surplus.forEach(BrowserPool::discard);
+        return surplus.size();
+    }
+
+    private static void discard(BrowserSession session) {
+        BrowserReaper.shared().quit(session.getDriver(), session.getServicePort());
+        ResourceGovernor.shared().releaseSession();
+    }
+
+    /**
+     * Check an idle browser still answers, and isn't marked for recycling, before handing it out
+     */
+    private static boolean isAlive(BrowserSession session) {
+        if (ResourceGovernor.shared().isRecycleRequested(session.getServicePort())) {
+            return false;
+        }
+        try {
+            session.getDriver().getWindowHandle();
+            return true;
+        } catch (WebDriverException e) {
+            System.err.println("Discarding dead pooled browser: " + e.getMessage().split("\n")[0]);
+            return false;
+        }
+    }
+
+    /**
+     * Quit idle browsers in the background and stop warming up
+     */
+    public void shutdown() {
+        drain().forEach(BrowserPool::discard);
+    }
+
+    /**
+     * Quit idle browsers on the calling thread, for the shutdown hook
+     */
+    private void closeNow() {
+        List<BrowserSession> sessions = drain();
+        sessions.parallelStream().forEach(session -> {
+            try {
+                session.getDriver().quit();
+            } catch (WebDriverException e) {
+                // Already gone
+            }
+            ResourceGovernor.shared().releaseSession();
+        });
+    }
+
+    private synchronized List<BrowserSession> drain() {
+        closed = true;
+        List<BrowserSession> sessions = new ArrayList<>(idle);
+        idle.clear();
+        notifyAll();
+        return sessions;
+    }
+
+    /**
+     * Get number of warm browsers waiting for a test
+     */
+    public synchronized int getIdleCount() {
+        return idle.size();
+    }
+}
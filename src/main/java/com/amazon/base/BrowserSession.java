@@ -0,0 +1,41 @@
+package com.amazon.base;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.service.DriverService;
+
+/**
+ * Started browser together with the driver service (chromedriver etc.) it talks to
+ */
+public final class BrowserSession {
+    private final String browser;
+    private final WebDriver driver;
+    private final DriverService service;
+
+    BrowserSession(String browser, WebDriver driver, DriverService service) {
+        this.browser = browser;
+        this.driver = driver;
+        this.service = service;
+    }
+
+    /**
+     * Get browser type the session was started for (chrome, firefox, edge)
+     */
+    public String getBrowser() {
+        return browser;
+    }
+
+    public WebDriver getDriver() {
+        return driver;
+    }
+
+    public DriverService getService() {
+        return service;
+    }
+
+    /**
+     * Get driver service port, or -1 if unknown
+     */
+    public int getServicePort() {
+        return service != null && service.getUrl() != null ? service.getUrl().getPort() : -1;
+    }
+}
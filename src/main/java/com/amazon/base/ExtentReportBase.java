@@ -2,7 +2,12 @@ package com.amazon.base;
 
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.markuputils.ExtentColor;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.amazon.utilities.FrameworkConfig;
+import com.amazon.utilities.RunTimeline;
+import com.amazon.utilities.WebVitalsCollector;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.text.SimpleDateFormat;
@@ -11,20 +16,30 @@ import java.util.Date;
 /**
  * Base class for Extent Reports configuration
  * Handles test reporting, logging, and screenshot attachment
+ * The current test node is tracked per thread so parallel tests log to their own node
  */
 public class ExtentReportBase {
     public static ExtentReports extentReports;
-    public static ExtentTest extentTest;
+    private static final ThreadLocal<ExtentTest> extentTest = new ThreadLocal<>();
     private static ExtentSparkReporter sparkReporter;
-    private static final String SCREENSHOT_PATH = "test-output/ExtentReports/screenshots/";
+    private static volatile String screenshotPath = getOutputDir() + "/ExtentReports/screenshots/";
+
+    /**
+     * Get root directory for reports and screenshots (output.dir, default test-output)
+     * Fork mode gives every JVM its own directory
+     */
+    public static String getOutputDir() {
+        return FrameworkConfig.get().getProperty("output.dir", "test-output");
+    }
 
     /**
      * Initialize Extent Reports
      */
-    public static void initializeExtentReport() {
-        String reportPath = "test-output/ExtentReports/";
+    public static synchronized void initializeExtentReport() {
+        String reportPath = getOutputDir() + "/ExtentReports/";
+        screenshotPath = reportPath + "screenshots/";
         new File(reportPath).mkdirs();
-        new File(SCREENSHOT_PATH).mkdirs();
+        new File(screenshotPath).mkdirs();
 
         String reportName = "AutomationReport_" + 
                 new SimpleDateFormat("dd_MM_yyyy_HH_mm_ss").format(new Date()) + ".html";
@@ -41,19 +56,31 @@ public class ExtentReportBase {
         extentReports.setSystemInfo("Execution Date", new SimpleDateFormat("dd-MM-yyyy HH:mm:ss").format(new Date()));
     }
 
+    /**
+     * Initialize Extent Reports unless a report is already open
+     * Used where several scenarios may start at the same time
+     */
+    public static synchronized void initializeExtentReportIfNeeded() {
+        if (extentReports == null) {
+            initializeExtentReport();
+        }
+    }
+
     /**
      * Create test node in extent report
      */
-    public static void createTest(String testName, String description) {
-        extentTest = extentReports.createTest(testName, description);
+    public static synchronized void createTest(String testName, String description) {
+        extentTest.set(extentReports.createTest(testName, description));
     }
 
     /**
      * Log pass in extent report
      */
     public static void logPass(String message) {
-        if (extentTest != null) {
-            extentTest.pass(message);
+        ExtentTest test = extentTest.get();
+        if (test != null) {
+            test.pass(message);
+            logWebVitals(test);
         }
     }
 
@@ -61,8 +88,31 @@ public class ExtentReportBase {
      * Log fail in extent report
      */
     public static void logFail(String message) {
-        if (extentTest != null) {
-            extentTest.fail(message);
+        ExtentTest test = extentTest.get();
+        if (test != null) {
+            test.fail(message);
+            logWebVitals(test);
+        }
+    }
+
+    /**
+     * Log performance budget failure in extent report
+     * Shown as an orange label and tagged "Performance budget", so it stands apart from functional failures
+     */
+    public static void logBudgetFail(String message) {
+        ExtentTest test = extentTest.get();
+        if (test != null) {
+            test.assignCategory("Performance budget");
+            test.fail(MarkupHelper.createLabel(message, ExtentColor.ORANGE));
+        }
+    }
+
+    /**
+     * Attach page loads measured since the last logged step (webVitals.enabled) to the step just logged
+     */
+    private static void logWebVitals(ExtentTest test) {
+        for (String webVitals : WebVitalsCollector.drainPendingSummaries()) {
+            test.info(webVitals);
         }
     }
 
@@ -70,8 +120,9 @@ public class ExtentReportBase {
      * Log skip in extent report
      */
     public static void logSkip(String message) {
-        if (extentTest != null) {
-            extentTest.skip(message);
+        ExtentTest test = extentTest.get();
+        if (test != null) {
+            test.skip(message);
         }
     }
 
@@ -79,8 +130,9 @@ public class ExtentReportBase {
      * Log info in extent report
      */
     public static void logInfo(String message) {
-        if (extentTest != null) {
-            extentTest.info(message);
+        ExtentTest test = extentTest.get();
+        if (test != null) {
+            test.info(message);
         }
     }
 
@@ -88,8 +140,9 @@ public class ExtentReportBase {
      * Log warning in extent report
      */
     public static void logWarning(String message) {
-        if (extentTest != null) {
-            extentTest.warning(message);
+        ExtentTest test = extentTest.get();
+        if (test != null) {
+            test.warning(message);
         }
     }
 
@@ -99,21 +152,22 @@ public class ExtentReportBase {
      * @param screenshotData Byte array of screenshot
      */
     public static void attachScreenshot(String fileName, byte[] screenshotData) {
-        try {
+        try (RunTimeline.Span span = RunTimeline.begin("report", "save screenshot")) {
             // Create screenshot file
             String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
-            String screenshotPath = SCREENSHOT_PATH + fileName + "_" + timestamp + ".png";
+            String screenshotFile = screenshotPath + fileName + "_" + timestamp + ".png";
             
-            FileOutputStream fileOutputStream = new FileOutputStream(screenshotPath);
+            FileOutputStream fileOutputStream = new FileOutputStream(screenshotFile);
             fileOutputStream.write(screenshotData);
             fileOutputStream.close();
             
             // Attach to report
-            if (extentTest != null) {
-                extentTest.addScreenCaptureFromPath(screenshotPath, fileName);
+            ExtentTest test = extentTest.get();
+            if (test != null) {
+                test.addScreenCaptureFromPath(screenshotFile, fileName);
             }
             
-            System.out.println("Screenshot saved: " + screenshotPath);
+            System.out.println("Screenshot saved: " + screenshotFile);
         } catch (Exception e) {
             System.err.println("Error attaching screenshot: " + e.getMessage());
         }
@@ -126,8 +180,9 @@ public class ExtentReportBase {
      */
     public static void attachScreenshot(String filePath, String fileName) {
         try {
-            if (extentTest != null) {
-                extentTest.addScreenCaptureFromPath(filePath, fileName);
+            ExtentTest test = extentTest.get();
+            if (test != null) {
+                test.addScreenCaptureFromPath(filePath, fileName);
             }
         } catch (Exception e) {
             System.err.println("Error attaching screenshot: " + e.getMessage());
@@ -136,18 +191,25 @@ public class ExtentReportBase {
 
     /**
      * Flush extent reports
+     * Flushes are serialized; the timeline shows the wait for the lock apart from the flush itself
      */
     public static void flushReport() {
-        if (extentReports != null) {
-            extentReports.flush();
-            System.out.println("\n✓ Extent Report generated successfully");
+        try (RunTimeline.Span span = RunTimeline.begin("report", "report flush")) {
+            synchronized (ExtentReportBase.class) {
+                if (extentReports != null) {
+                    try (RunTimeline.Span write = RunTimeline.begin("report", "write report")) {
+                        extentReports.flush();
+                    }
+                    System.out.println("\n✓ Extent Report generated successfully");
+                }
+            }
         }
     }
 
     /**
-     * Get current test node
+     * Get current test node of this thread
      */
     public static ExtentTest getTest() {
-        return extentTest;
+        return extentTest.get();
     }
 }
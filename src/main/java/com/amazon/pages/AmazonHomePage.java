@@ -3,6 +3,8 @@ package com.amazon.pages;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import com.amazon.utilities.BrowserInteractionUtility;
+import com.amazon.utilities.PerformanceBudget;
+import java.util.Map;
 
 /**
  * Page Object for Amazon Home Page
@@ -49,4 +51,12 @@ public class AmazonHomePage {
     public boolean isSearchBoxDisplayed() {
         return browserInteraction.isElementDisplayed(searchBox);
     }
+
+    /**
+     * Check page timings against the budget.AmazonHomePage.* budgets in config
+     * Returns the measured values; throws PerformanceBudget.BudgetExceededError if a budget is exceeded
+     */
+    public Map<String, Double> assertWithinPerformanceBudget() {
+        return PerformanceBudget.forPage(AmazonHomePage.class).assertWithinBudgets(driver);
+    }
 }
@@ -3,6 +3,8 @@ package com.amazon.pages;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import com.amazon.utilities.BrowserInteractionUtility;
+import com.amazon.utilities.PerformanceBudget;
+import java.util.Map;
 
 /**
  * Page Object for Amazon Product Details Page
@@ -74,4 +76,12 @@ public class AmazonProductDetailsPage {
     public boolean isAddToCartButtonDisplayed() {
         return browserInteraction.isElementDisplayed(addToCartBtn);
     }
+
+    /**
+     * Check page timings against the budget.AmazonProductDetailsPage.* budgets in config
+     * Returns the measured values; throws PerformanceBudget.BudgetExceededError if a budget is exceeded
+     */
+    public Map<String, Double> assertWithinPerformanceBudget() {
+        return PerformanceBudget.forPage(AmazonProductDetailsPage.class).assertWithinBudgets(driver);
+    }
 }
@@ -3,6 +3,8 @@ package com.amazon.pages;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import com.amazon.utilities.BrowserInteractionUtility;
+import com.amazon.utilities.PerformanceBudget;
+import java.util.Map;
 
 /**
  * Page Object for Amazon Search Results Page
@@ -60,4 +62,12 @@ public class AmazonSearchResultsPage {
     public boolean isAddToCartButtonDisplayed() {
         return browserInteraction.isElementDisplayed(addToCartButton);
     }
+
+    /**
+     * Check page timings against the budget.AmazonSearchResultsPage.* budgets in config
+     * Returns the measured values; throws PerformanceBudget.BudgetExceededError if a budget is exceeded
+     */
+    public Map<String, Double> assertWithinPerformanceBudget() {
+        return PerformanceBudget.forPage(AmazonSearchResultsPage.class).assertWithinBudgets(driver);
+    }
 }
@@ -9,6 +9,9 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Utility class for common browser interaction methods
@@ -20,12 +23,53 @@ public class BrowserInteractionUtility {
     private WebDriverWait wait;
     private static final int DEFAULT_TIMEOUT = 10;
 
+    /**
+     * WebDriverWait that emits a JFR WaitEvent per wait, with the condition's locator and whether it was met
+     */
+    private static class RecordedWait extends WebDriverWait {
+        private static final Pattern LOCATOR = Pattern.compile("By\\.\\w+: .*");
+        private final long timeoutMillis;
+
+        RecordedWait(WebDriver driver, Duration timeout) {
+            super(driver, timeout);
+            this.timeoutMillis = timeout.toMillis();
+        }
+
+        @Override
+        public <V> V until(Function<? super WebDriver, V> condition) {
+            FlightRecorderEvents.WaitEvent event = new FlightRecorderEvents.WaitEvent();
+            event.begin();
+            RunTimeline.Span span = RunTimeline.begin("wait", String.valueOf(condition));
+            String outcome = "error";
+            try {
+                V result = super.until(condition);
+                outcome = "met";
+                return result;
+            } catch (TimeoutException e) {
+                outcome = "timeout";
+                throw e;
+            } finally {
+                span.arg("outcome", outcome).close();
+                if (event.shouldCommit()) {
+                    // ExpectedConditions describe themselves with their locator, e.g. "visibility of element located by By.id: x"
+                    String description = String.valueOf(condition);
+                    Matcher locator = LOCATOR.matcher(description);
+                    event.locator = locator.find() ? locator.group() : null;
+                    event.condition = description;
+                    event.outcome = outcome;
+                    event.timeout = timeoutMillis;
+                    event.commit();
+                }
+            }
+        }
+    }
+
     /**
      * Constructor to initialize WebDriver and WebDriverWait
      */
     public BrowserInteractionUtility(WebDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(DEFAULT_TIMEOUT));
+        this.wait = new RecordedWait(driver, Duration.ofSeconds(DEFAULT_TIMEOUT));
     }
 
     /**
@@ -33,7 +77,7 @@ public class BrowserInteractionUtility {
      */
     public BrowserInteractionUtility(WebDriver driver, int timeoutInSeconds) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
+        this.wait = new RecordedWait(driver, Duration.ofSeconds(timeoutInSeconds));
     }
 
     // ============ Click Operations ============
@@ -43,7 +87,9 @@ public class BrowserInteractionUtility {
      */
     public void click(By locator) {
         waitForElementToBeClickable(locator);
+        Double timeOrigin = webVitalsTimeOrigin();
         driver.findElement(locator).click();
+        collectWebVitalsIfNavigated(timeOrigin);
     }
 
     /**
@@ -51,7 +97,25 @@ public class BrowserInteractionUtility {
      */
     public void click(WebElement element) {
         wait.until(ExpectedConditions.elementToBeClickable(element));
+        Double timeOrigin = webVitalsTimeOrigin();
         element.click();
+        collectWebVitalsIfNavigated(timeOrigin);
+    }
+
+    /**
+     * Time origin of the current document before a click, or null when webVitals.enabled is off
+     */
+    private Double webVitalsTimeOrigin() {
+        return WebVitalsCollector.isEnabled() ? WebVitalsCollector.timeOrigin(driver) : null;
+    }
+
+    /**
+     * Collect web vitals if the click loaded a new document (its time origin changed)
+     */
+    private void collectWebVitalsIfNavigated(Double timeOriginBefore) {
+        if (timeOriginBefore != null && !timeOriginBefore.equals(WebVitalsCollector.timeOrigin(driver))) {
+            WebVitalsCollector.collect(driver, "click");
+        }
     }
 
     /**
@@ -226,7 +290,7 @@ public class BrowserInteractionUtility {
      * Wait for element to disappear
      */
     public boolean waitForElementToDisappear(By locator, int timeoutInSeconds) {
-        WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
+        WebDriverWait customWait = new RecordedWait(driver, Duration.ofSeconds(timeoutInSeconds));
         return customWait.until(ExpectedConditions.invisibilityOfElementLocated(locator));
     }
 
@@ -573,7 +637,18 @@ public class BrowserInteractionUtility {
      * Navigate to URL
      */
     public void navigateTo(String url) {
-        driver.navigate().to(url);
+        CircuitBreaker circuitBreaker = CircuitBreaker.forUrl(url);
+        try {
+            driver.navigate().to(url);
+            circuitBreaker.recordSuccess();
+            if (WebVitalsCollector.isEnabled()) {
+                WebVitalsCollector.collect(driver, "navigate");
+            }
+        } catch (WebDriverException e) {
+            // Page load timeouts and network errors (net::ERR_...) count towards opening the breaker
+            circuitBreaker.recordFailure(e);
+            throw e;
+        }
     }
 
     /**
@@ -0,0 +1,174 @@
+package com.amazon.utilities;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closes browsers on a background executor so quitting one session overlaps the next one's setup
+ * At most teardown.maxInFlight quits run at once; a caller beyond that waits for a free slot, which
+ * bounds how many dying browsers compete with live ones. After quit, any process still attached to
+ * the driver's port is reaped. teardown.async=false quits on the calling thread instead.
+ */
+public class BrowserReaper {
+    private static final long SHUTDOWN_WAIT_SECONDS = 30;
+    private static volatile BrowserReaper shared;
+
+    private final ExecutorService executor;
+    private final Semaphore slots;
+    private final int maxInFlight;
+    private final LongAdder quitNanos = new LongAdder();
+    private final AtomicInteger closedCount = new AtomicInteger();
+
+    private BrowserReaper(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+        this.slots = new Semaphore(maxInFlight);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(maxInFlight, runnable -> {
+            Thread thread = new Thread(runnable, "browser-reaper-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> awaitIdle(SHUTDOWN_WAIT_SECONDS), "browser-reaper-shutdown"));
+    }
+
+    /**
+     * Get reaper shared by the whole JVM
+     */
+    public static BrowserReaper shared() {
+        BrowserReaper reaper = shared;
+        if (reaper == null) {
+            synchronized (BrowserReaper.class) {
+                reaper = shared;
+                if (reaper == null) {
+                    reaper = new BrowserReaper(Math.max(1, FrameworkConfig.get().getInt("teardown.maxInFlight", 4)));
+                    shared = reaper;
+                }
+            }
+        }
+        return reaper;
+    }
+
+    /**
+     * Quit driver in the background (or right away with teardown.async=false)
+     * driverPort is the driver service port used to reap leftover processes, or -1 if unknown
+     */
+    public void quit(WebDriver driver, int driverPort) {
+        if (!FrameworkConfig.get().getBoolean("teardown.async", true)) {
+            quitNow(driver, driverPort);
+            return;
+        }
+        try {
+            slots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            quitNow(driver, driverPort);
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    long start = System.nanoTime();
+                    quitNow(driver, driverPort);
+                    quitNanos.add(System.nanoTime() - start);
+                    closedCount.incrementAndGet();
+                } finally {
+                    slots.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            slots.release();
+            quitNow(driver, driverPort);
+        }
+    }
+
+    private static void quitNow(WebDriver driver, int driverPort) {
+        try {
+            driver.quit();
+        } catch (WebDriverException e) {
+            // Driver process already gone, e.g. killed by StepWatchdog
+            System.err.println("Error quitting browser: " + e.getMessage().split("\n")[0]);
+        }
+        ResourceGovernor.shared().unregisterBrowser(driverPort);
+        int reaped = killDriverProcesses(driverPort);
+        if (reaped > 0) {
+            System.err.println("Reaped " + reaped + " leftover driver/browser processes on port " + driverPort);
+        }
+    }
+
+    /**
+     * Wait until all background quits are done, up to the timeout
+     * Returns true if none is still running
+     */
+    public boolean awaitIdle(long timeoutSeconds) {
+        try {
+            if (!slots.tryAcquire(maxInFlight, timeoutSeconds, TimeUnit.SECONDS)) {
+                System.err.println("Browser teardown still running after " + timeoutSeconds + " s");
+                return false;
+            }
+            slots.release(maxInFlight);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Print how much quit time ran off the test threads so far
+     */
+    public void printSummary() {
+        if (closedCount.get() > 0) {
+            System.out.printf("Async teardown: %d browsers closed in the background, %.1f s of quit time off the critical path%n",
+                    closedCount.get(), quitNanos.sum() / 1e9);
+        }
+    }
+
+    /**
+     * Force-kill the driver process listening on the port and everything it started (the browser)
+     * Only processes started by this JVM are considered, so other workers' and forks' sessions are safe
+     */
+    public static int killDriverProcesses(int driverPort) {
+        int killed = 0;
+        for (ProcessHandle process : findDriverProcesses(driverPort)) {
+            for (ProcessHandle child : process.descendants().toArray(ProcessHandle[]::new)) {
+                if (child.destroyForcibly()) {
+                    killed++;
+                }
+            }
+            if (process.destroyForcibly()) {
+                killed++;
+            }
+        }
+        return killed;
+    }
+
+    /**
+     * Find driver processes started by this JVM that listen on the port
+     */
+    public static List<ProcessHandle> findDriverProcesses(int driverPort) {
+        List<ProcessHandle> processes = new ArrayList<>();
+        if (driverPort > 0) {
+            ProcessHandle.current().descendants()
+                    .filter(process -> isDriverOnPort(process, driverPort))
+                    .forEach(processes::add);
+        }
+        return processes;
+    }
+
+    private static boolean isDriverOnPort(ProcessHandle process, int port) {
+        String[] arguments = process.info().arguments().orElse(new String[0]);
+        for (int i = 0; i < arguments.length; i++) {
+            if (arguments[i].equals("--port=" + port)
+                    || (arguments[i].equals("--port") && i + 1 < arguments.length && arguments[i + 1].equals(String.valueOf(port)))) {
+                return true;
+            }
+        }
+        return process.info().commandLine().map(line -> line.contains("--port=" + port + " ")
+                || line.endsWith("--port=" + port)).orElse(false);
+    }
+}
@@ -0,0 +1,257 @@
+package com.amazon.utilities;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TestDataSource backed by an in-memory key index and a compact binary cache file
+ * The source is parsed once; later runs read the binary cache until the source file changes
+ */
+public class CachedTestDataSource implements TestDataSource {
+    private static final int CACHE_MAGIC = 0x54444331;
+    // Version 2 stores null values (length -1) apart from empty strings
+    private static final int CACHE_FORMAT_VERSION = 2;
+    private static final Map<String, CachedTestDataSource> OPEN_SOURCES = new ConcurrentHashMap<>();
+
+    private final String keyField;
+    private final long sourceSize;
+    private final long sourceLastModified;
+    private final List<Map<String, String>> records;
+    private final Map<String, Map<String, String>> index;
+
+    private CachedTestDataSource(String keyField, long sourceSize, long sourceLastModified,
+                                 List<Map<String, String>> records) {
+        this.keyField = keyField;
+        this.sourceSize = sourceSize;
+        this.sourceLastModified = sourceLastModified;
+        List<Map<String, String>> immutableRecords = new ArrayList<>(records.size());
+        Map<String, Map<String, String>> keyIndex = new LinkedHashMap<>();
+        for (Map<String, String> record : records) {
+            Map<String, String> immutableRecord = Collections.unmodifiableMap(new LinkedHashMap<>(record));
+            immutableRecords.add(immutableRecord);
+            String key = record.get(keyField);
+            // A second record with the same key could never be looked up, so the data is wrong rather than redundant
+            if (key != null && keyIndex.putIfAbsent(key, immutableRecord) != null) {
+                throw new IllegalArgumentException("Duplicate " + keyField + " '" + key + "' in record "
+                        + immutableRecords.size() + "; keys must be unique");
+            }
+        }
+        this.records = Collections.unmodifiableList(immutableRecords);
+        this.index = Collections.unmodifiableMap(keyIndex);
+    }
+
+    /**
+     * Open source, reusing the instance already loaded in this JVM or the binary cache on disk
+     */
+    static CachedTestDataSource open(String filePath, String sheetName, String keyField) throws IOException {
+        Path sourcePath = Paths.get(filePath).toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(sourcePath, BasicFileAttributes.class);
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String sourceId = sourcePath + "|" + (sheetName != null ? sheetName : "") + "|" + keyField;
+
+        CachedTestDataSource loaded = OPEN_SOURCES.get(sourceId);
+        if (loaded != null && loaded.sourceSize == size && loaded.sourceLastModified == lastModified) {
+            return loaded;
+        }
+
+        Path cacheFile = cacheFileFor(sourcePath, sourceId);
+        CachedTestDataSource source = readCache(cacheFile, sourceId, size, lastModified);
+        if (source == null) {
+            List<Map<String, String>> records = parse(sourcePath, sheetName);
+            try {
+                source = new CachedTestDataSource(keyField, size, lastModified, records);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(sourcePath + ": " + e.getMessage(), e);
+            }
+            writeCache(cacheFile, sourceId, source);
+        }
+        OPEN_SOURCES.put(sourceId, source);
+        return source;
+    }
+
+    /**
+     * Parse source with the utility matching its file extension
+     */
+    private static List<Map<String, String>> parse(Path sourcePath, String sheetName) throws IOException {
+        String fileName = sourcePath.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (fileName.endsWith(".json")) {
+            return new JsonUtility(sourcePath.toString()).jsonArrayToList();
+        }
+        if (fileName.endsWith(".xlsx") || fileName.endsWith(".xls")) {
+            ExcelUtility excelUtility = new ExcelUtility(sourcePath.toString());
+            return excelUtility.getSheetData(sheetName != null ? sheetName : excelUtility.getSheetName(0));
+        }
+        if (fileName.endsWith(".csv")) {
+            return parseDelimited(sourcePath, ",");
+        }
+        if (fileName.endsWith(".tsv")) {
+            return parseDelimited(sourcePath, "\t");
+        }
+        throw new IllegalArgumentException("Unsupported test data format: " + sourcePath);
+    }
+
+    /**
+     * Parse simple delimited text (header row, no quoting)
+     */
+    private static List<Map<String, String>> parseDelimited(Path sourcePath, String delimiter) throws IOException {
+        List<String> lines = TextFileUtility.readTextFile(sourcePath.toString());
+        List<Map<String, String>> data = new ArrayList<>();
+        if (lines.isEmpty()) {
+            return data;
+        }
+        String[] headers = lines.get(0).split(delimiter, -1);
+        for (int lineIndex = 1; lineIndex < lines.size(); lineIndex++) {
+            String line = lines.get(lineIndex);
+            if (line.isBlank()) continue;
+
+            String[] values = line.split(delimiter, -1);
+            Map<String, String> rowData = new LinkedHashMap<>();
+            for (int colIndex = 0; colIndex < headers.length; colIndex++) {
+                rowData.put(headers[colIndex].trim(), colIndex < values.length ? values[colIndex].trim() : "");
+            }
+            data.add(rowData);
+        }
+        return data;
+    }
+
+    private static Path cacheFileFor(Path sourcePath, String sourceId) {
+        String cacheDir = FrameworkConfig.get().getProperty("testData.cacheDir", "target/testdata-cache");
+        String name = sourcePath.getFileName().toString().replaceAll("[^A-Za-z0-9._-]", "_");
+        return Paths.get(cacheDir, name + "-" + Integer.toHexString(sourceId.hashCode()) + ".bin");
+    }
+
+    /**
+     * Read binary cache, or null if it is missing, stale or unreadable
+     */
+    private static CachedTestDataSource readCache(Path cacheFile, String sourceId, long size, long lastModified) {
+        if (!Files.exists(cacheFile)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+            if (in.readInt() != CACHE_MAGIC || in.readInt() != CACHE_FORMAT_VERSION
+                    || !in.readUTF().equals(sourceId) || in.readLong() != size || in.readLong() != lastModified) {
+                return null;
+            }
+            String keyField = in.readUTF();
+            String[] fieldNames = new String[in.readInt()];
+            for (int i = 0; i < fieldNames.length; i++) {
+                fieldNames[i] = in.readUTF();
+            }
+            int recordCount = in.readInt();
+            List<Map<String, String>> records = new ArrayList<>(recordCount);
+            for (int r = 0; r < recordCount; r++) {
+                int fieldCount = in.readInt();
+                Map<String, String> record = new LinkedHashMap<>();
+                for (int f = 0; f < fieldCount; f++) {
+                    String fieldName = fieldNames[in.readInt()];
+                    int length = in.readInt();
+                    if (length < 0) {
+                        record.put(fieldName, null);
+                        continue;
+                    }
+                    byte[] value = new byte[length];
+                    in.readFully(value);
+                    record.put(fieldName, new String(value, StandardCharsets.UTF_8));
+                }
+                records.add(record);
+            }
+            return new CachedTestDataSource(keyField, size, lastModified, records);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring unreadable test data cache " + cacheFile + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Write binary cache through a temp file so concurrent readers never see a partial file
+     */
+    private static void writeCache(Path cacheFile, String sourceId, CachedTestDataSource source) {
+        Path tempFile = null;
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            tempFile = Files.createTempFile(cacheFile.getParent(), cacheFile.getFileName().toString(), ".tmp");
+
+            Map<String, Integer> fieldIds = new LinkedHashMap<>();
+            for (Map<String, String> record : source.records) {
+                for (String fieldName : record.keySet()) {
+                    fieldIds.putIfAbsent(fieldName, fieldIds.size());
+                }
+            }
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(CACHE_MAGIC);
+                out.writeInt(CACHE_FORMAT_VERSION);
+                out.writeUTF(sourceId);
+                out.writeLong(source.sourceSize);
+                out.writeLong(source.sourceLastModified);
+                out.writeUTF(source.keyField);
+                out.writeInt(fieldIds.size());
+                for (String fieldName : fieldIds.keySet()) {
+                    out.writeUTF(fieldName);
+                }
+                out.writeInt(source.records.size());
+                for (Map<String, String> record : source.records) {
+                    out.writeInt(record.size());
+                    for (Map.Entry<String, String> field : record.entrySet()) {
+                        out.writeInt(fieldIds.get(field.getKey()));
+                        if (field.getValue() == null) {
+                            out.writeInt(-1);
+                            continue;
+                        }
+                        byte[] value = field.getValue().getBytes(StandardCharsets.UTF_8);
+                        out.writeInt(value.length);
+                        out.write(value);
+                    }
+                }
+            }
+            Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Could not write test data cache " + cacheFile + ": " + e.getMessage());
+        } finally {
+            // Gone after a successful move; left over only when writing or moving failed
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException e) {
+                    System.err.println("Could not delete " + tempFile + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<Map<String, String>> getRecords() {
+        return records;
+    }
+
+    @Override
+    public Map<String, String> getRecord(String key) {
+        return index.get(key);
+    }
+
+    @Override
+    public String getValue(String key, String field) {
+        Map<String, String> record = index.get(key);
+        return record != null ? record.get(field) : null;
+    }
+
+    @Override
+    public Set<String> getKeys() {
+        return index.keySet();
+    }
+
+    @Override
+    public String getKeyField() {
+        return keyField;
+    }
+
+    @Override
+    public int size() {
+        return records.size();
+    }
+}
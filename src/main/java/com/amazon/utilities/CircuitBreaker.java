@@ -0,0 +1,155 @@
+package com.amazon.utilities;
+
+import org.testng.SkipException;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Circuit breaker for the site under test
+ * Opens after circuitBreaker.failureThreshold consecutive navigation failures on a site; while open,
+ * tests are skipped before a browser is started. With circuitBreaker.halfOpen, the first test after
+ * circuitBreaker.cooldownMs runs a cheap HTTP health probe and closes the breaker if the site answers.
+ */
+public class CircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final Map<String, CircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+
+    private final String site;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtMillis;
+    private String lastFailure;
+
+    private CircuitBreaker(String site) {
+        this.site = site;
+    }
+
+    /**
+     * Get breaker shared by all threads for the site (scheme and host) of the URL
+     */
+    public static CircuitBreaker forUrl(String url) {
+        return BREAKERS.computeIfAbsent(siteOf(url), CircuitBreaker::new);
+    }
+
+    /**
+     * Reset all breakers to closed
+     */
+    public static void resetAll() {
+        BREAKERS.clear();
+    }
+
+    private static String siteOf(String url) {
+        try {
+            URI uri = URI.create(url.trim());
+            if (uri.getScheme() != null && uri.getHost() != null) {
+                return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() != -1 ? ":" + uri.getPort() : "") + "/";
+            }
+        } catch (IllegalArgumentException e) {
+            // Not a URL; use the text as is
+        }
+        return url;
+    }
+
+    /**
+     * Throw SkipException if the breaker is open, probing the site first if the cooldown has passed
+     */
+    public void ensureClosed() {
+        FrameworkConfig config = FrameworkConfig.get();
+        if (config.getInt("circuitBreaker.failureThreshold", 3) <= 0) {
+            return;
+        }
+        synchronized (this) {
+            if (state == State.CLOSED) {
+                return;
+            }
+            long cooldownMillis = config.getLong("circuitBreaker.cooldownMs", 60000);
+            if (state == State.HALF_OPEN || !config.getBoolean("circuitBreaker.halfOpen", true)
+                    || System.currentTimeMillis() - openedAtMillis < cooldownMillis) {
+                throw unavailable();
+            }
+            // Only this thread probes; the others keep skipping until the probe is done
+            state = State.HALF_OPEN;
+        }
+
+        int timeoutMillis = config.getInt("circuitBreaker.probeTimeoutMs", 5000);
+        String probeFailure = probe(site, timeoutMillis);
+        synchronized (this) {
+            if (probeFailure == null) {
+                state = State.CLOSED;
+                consecutiveFailures = 0;
+                System.out.println("Circuit breaker closed: " + site + " answered the health probe");
+                return;
+            }
+            state = State.OPEN;
+            openedAtMillis = System.currentTimeMillis();
+            lastFailure = "health probe: " + probeFailure;
+            System.err.println("Circuit breaker still open: " + site + " failed the health probe (" + probeFailure + ")");
+            throw unavailable();
+        }
+    }
+
+    /**
+     * Record successful navigation
+     */
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+    }
+
+    /**
+     * Record failed or timed-out navigation, opening the breaker once the threshold is reached
+     */
+    public synchronized void recordFailure(Throwable failure) {
+        consecutiveFailures++;
+        lastFailure = firstLine(failure);
+        int threshold = FrameworkConfig.get().getInt("circuitBreaker.failureThreshold", 3);
+        if (state == State.CLOSED && threshold > 0 && consecutiveFailures >= threshold) {
+            state = State.OPEN;
+            openedAtMillis = System.currentTimeMillis();
+            System.err.println("Circuit breaker opened for " + site + " after " + consecutiveFailures
+                    + " consecutive navigation failures (last: " + lastFailure + "); remaining tests will be skipped");
+        }
+    }
+
+    /**
+     * Get current state
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    private SkipException unavailable() {
+        return new SkipException("Site under test unavailable, circuit breaker open for " + site
+                + " after " + consecutiveFailures + " consecutive failures (last: " + lastFailure + ")");
+    }
+
+    /**
+     * Send a GET to the site; returns null if it answered with a status below 500, otherwise the reason
+     */
+    static String probe(String url, int timeoutMillis) {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) URI.create(url).toURL().openConnection();
+            connection.setConnectTimeout(timeoutMillis);
+            connection.setReadTimeout(timeoutMillis);
+            connection.setInstanceFollowRedirects(true);
+            int status = connection.getResponseCode();
+            return status < 500 ? null : "HTTP " + status;
+        } catch (IOException | IllegalArgumentException e) {
+            return e.getClass().getSimpleName() + ": " + e.getMessage();
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    private static String firstLine(Throwable failure) {
+        String message = failure.getMessage() != null ? failure.getMessage() : failure.getClass().getSimpleName();
+        int newline = message.indexOf('\n');
+        return newline >= 0 ? message.substring(0, newline) : message;
+    }
+}
@@ -0,0 +1,52 @@
+package com.amazon.utilities;
+
+import com.amazon.utilities.FlightRecorderEvents.DriverCommandEvent;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Emits a JFR DriverCommandEvent for every WebDriver, WebElement and navigation call
+ * BaseTest decorates browsers with it when the event is enabled in a running recording at browser start.
+ */
+public class CommandEventListener implements WebDriverListener {
+    // Decorated calls can nest (a call on a decorated element made while another call is running)
+    private static final ThreadLocal<Deque<DriverCommandEvent>> EVENTS = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Whether a running recording wants driver command events
+     */
+    public static boolean isRecording() {
+        return new DriverCommandEvent().isEnabled();
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        DriverCommandEvent event = new DriverCommandEvent();
+        event.begin();
+        EVENTS.get().push(event);
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        finish(method, false);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        finish(method, true);
+    }
+
+    private static void finish(Method method, boolean failed) {
+        DriverCommandEvent event = EVENTS.get().poll();
+        if (event != null && event.shouldCommit()) {
+            event.command = method.getName();
+            event.target = method.getDeclaringClass().getSimpleName();
+            event.failed = failed;
+            event.commit();
+        }
+    }
+}
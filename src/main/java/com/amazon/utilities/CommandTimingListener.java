@@ -0,0 +1,40 @@
+package com.amazon.utilities;
+
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Records the duration of every WebDriver, WebElement and navigation call in LatencyRecorder
+ * Calls are recorded as command.&lt;method&gt;, e.g. command.findElement or command.click. BaseTest
+ * decorates browsers with it when perf.commandTiming is true.
+ */
+public class CommandTimingListener implements WebDriverListener {
+    // Decorated calls can nest (a call on a decorated element made while another call is running)
+    private static final ThreadLocal<Deque<Long>> START_TIMES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        START_TIMES.get().push(System.nanoTime());
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        finish(method);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        finish(method);
+    }
+
+    private static void finish(Method method) {
+        Long start = START_TIMES.get().poll();
+        if (start != null) {
+            LatencyRecorder.shared().record("command." + method.getName(), (System.nanoTime() - start) / 1e6);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.amazon.utilities;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-test and per-scenario durations from previous runs, kept in a small local properties file
+ * Durations measured in this run are merged into the file with exponential smoothing on save,
+ * so one slow outlier doesn't reorder the whole suite
+ */
+public class DurationHistory {
+    private static final double SMOOTHING = 0.5;
+    private static volatile DurationHistory shared;
+
+    private final Path filePath;
+    private final Map<String, Long> previousDurations;
+    private final Map<String, Long> currentDurations = new ConcurrentHashMap<>();
+    private volatile Path runFilePath;
+
+    private DurationHistory(Path filePath, Map<String, Long> previousDurations) {
+        this.filePath = filePath;
+        this.previousDurations = previousDurations;
+    }
+
+    /**
+     * Get history shared by the whole JVM, loaded from durations.file (default test-durations.properties)
+     * With durations.runFile set (fork mode), save writes only this run's durations to that file
+     * and the launcher merges them into the history once all forks are done. With shard.count above 1
+     * the history is read-only input to the shard plan, which must be the same on every agent; this run's
+     * durations go to a per-shard file (e.g. test-durations.shard-0.properties) for {@link #main} to merge.
+     */
+    public static DurationHistory shared() {
+        DurationHistory history = shared;
+        if (history == null) {
+            synchronized (DurationHistory.class) {
+                history = shared;
+                if (history == null) {
+                    FrameworkConfig config = FrameworkConfig.get();
+                    history = load(config.getProperty("durations.file", "test-durations.properties"));
+                    String runFile = config.getProperty("durations.runFile");
+                    if (runFile != null && !runFile.isBlank()) {
+                        history.runFilePath = Paths.get(runFile);
+                    } else if (config.getInt("shard.count", 1) > 1) {
+                        history.runFilePath = shardRunFile(history.filePath, config.getInt("shard.index", 0));
+                    }
+                    shared = history;
+                }
+            }
+        }
+        return history;
+    }
+
+    /**
+     * Merge the run files of sharded agents into durations.file, once all agents are done
+     * Usage: java com.amazon.utilities.DurationHistory test-durations.shard-0.properties test-durations.shard-1.properties ...
+     */
+    public static void main(String[] runFiles) throws IOException {
+        DurationHistory history = load(FrameworkConfig.get().getProperty("durations.file", "test-durations.properties"));
+        for (String runFile : runFiles) {
+            history.recordRun(runFile);
+        }
+        history.save();
+        System.out.println("Merged " + runFiles.length + " run files into " + history.filePath
+                + ", duration history now " + load(history.filePath.toString()).digest());
+    }
+
+    /**
+     * Run file of one shard next to the history file: test-durations.properties gives test-durations.shard-N.properties
+     */
+    static Path shardRunFile(Path historyFile, int shardIndex) {
+        String name = historyFile.getFileName().toString();
+        int extension = name.lastIndexOf('.');
+        String shardName = extension > 0
+                ? name.substring(0, extension) + ".shard-" + shardIndex + name.substring(extension)
+                : name + ".shard-" + shardIndex;
+        return historyFile.resolveSibling(shardName);
+    }
+
+    /**
+     * Short fingerprint of the loaded durations, e.g. "a41f09c2e1b7 (24 entries)"
+     * Sharded agents log it with their plan; agents showing different digests planned from different histories
+     */
+    public String digest() {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            for (Map.Entry<String, Long> entry : new TreeMap<>(previousDurations).entrySet()) {
+                sha256.update((entry.getKey() + "=" + entry.getValue() + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            String hex = HexFormat.of().formatHex(sha256.digest());
+            return hex.substring(0, 12) + " (" + previousDurations.size() + " entries)";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Load history file; a missing or unreadable file gives an empty history
+     */
+    public static DurationHistory load(String filePath) {
+        Path path = Paths.get(filePath);
+        Map<String, Long> durations = new HashMap<>();
+        if (Files.exists(path)) {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+                for (String key : properties.stringPropertyNames()) {
+                    durations.put(key, Long.parseLong(properties.getProperty(key).trim()));
+                }
+            } catch (IOException | NumberFormatException e) {
+                System.err.println("Ignoring unreadable duration history " + path + ": " + e.getMessage());
+                durations.clear();
+            }
+        }
+        return new DurationHistory(path, Collections.unmodifiableMap(durations));
+    }
+
+    /**
+     * Key for a Cucumber scenario: feature URI and scenario line
+     * Absolute URIs under the working directory are made relative so keys match on every machine
+     */
+    public static String scenarioKey(Object featureUri, int line) {
+        String uri = String.valueOf(featureUri);
+        String workingDirectory = Paths.get("").toAbsolutePath().toUri().toString();
+        if (uri.startsWith(workingDirectory)) {
+            uri = "file:" + uri.substring(workingDirectory.length());
+        }
+        return uri + ":" + line;
+    }
+
+    /**
+     * Key for a TestNG test method
+     */
+    public static String methodKey(String className, String methodName) {
+        return className + "#" + methodName;
+    }
+
+    /**
+     * Record duration measured in this run
+     */
+    public void record(String key, long durationMillis) {
+        currentDurations.put(key, durationMillis);
+    }
+
+    /**
+     * Record all durations of a run file written by another JVM
+     */
+    public void recordRun(String runFile) {
+        load(runFile).previousDurations.forEach(this::record);
+    }
+
+    /**
+     * Get duration from previous runs, or empty if this key has never run
+     */
+    public OptionalLong getDuration(String key) {
+        Long duration = previousDurations.get(key);
+        return duration != null ? OptionalLong.of(duration) : OptionalLong.empty();
+    }
+
+    /**
+     * Get duration from previous runs, falling back to the mean of all known durations
+     * (or 1 ms when the history is empty, which degrades to balancing by count)
+     */
+    public long getDurationOrMean(String key) {
+        Long duration = previousDurations.get(key);
+        if (duration != null) {
+            return duration;
+        }
+        return previousDurations.isEmpty() ? 1 : Math.max(1, (long) previousDurations.values().stream()
+                .mapToLong(Long::longValue).average().orElse(1));
+    }
+
+    /**
+     * Get duration measured in this run, or empty if the key hasn't finished yet
+     */
+    public OptionalLong getCurrentDuration(String key) {
+        Long duration = currentDurations.get(key);
+        return duration != null ? OptionalLong.of(duration) : OptionalLong.empty();
+    }
+
+    /**
+     * Merge durations of this run into the history file, or write them to the run file if one is set
+     * Keys are written sorted so the file diffs cleanly and reads the same on every machine
+     */
+    public synchronized void save() throws IOException {
+        if (currentDurations.isEmpty()) {
+            return;
+        }
+        if (runFilePath != null) {
+            write(runFilePath, new TreeMap<>(currentDurations), "# Durations in ms measured by a single run");
+            return;
+        }
+        Map<String, Long> merged = new TreeMap<>(previousDurations);
+        for (Map.Entry<String, Long> entry : currentDurations.entrySet()) {
+            Long previous = merged.get(entry.getKey());
+            long current = entry.getValue();
+            merged.put(entry.getKey(), previous == null ? current
+                    : Math.round(SMOOTHING * current + (1 - SMOOTHING) * previous));
+        }
+
+        write(filePath, merged, "# Test and scenario durations in ms, updated after each run");
+    }
+
+    /**
+     * Write durations through a temp file so a concurrent reader never sees a partial file
+     */
+    private static void write(Path path, Map<String, Long> durations, String header) throws IOException {
+        Path absolutePath = path.toAbsolutePath();
+        Files.createDirectories(absolutePath.getParent());
+        Path tempFile = Files.createTempFile(absolutePath.getParent(), absolutePath.getFileName().toString(), ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+            writer.write(header);
+            writer.newLine();
+            for (Map.Entry<String, Long> entry : durations.entrySet()) {
+                writer.write(escapeKey(entry.getKey()) + "=" + entry.getValue());
+                writer.newLine();
+            }
+        }
+        Files.move(tempFile, absolutePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Escape characters Properties.load treats specially in keys
+     */
+    private static String escapeKey(String key) {
+        StringBuilder escaped = new StringBuilder();
+        for (char c : key.toCharArray()) {
+            if (c == ' ' || c == ':' || c == '=' || c == '#' || c == '!' || c == '\\') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -1,22 +1,34 @@
 package com.amazon.utilities;
 
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStrings;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.*;
 
 /**
  * Utility class for handling Excel operations
+ * Workbook state is per instance, so instances used on different threads don't interfere
  */
 public class ExcelUtility {
-    private static Workbook workbook;
-    private static Sheet sheet;
-    private static Row row;
-    private static Cell cell;
+    private Workbook workbook;
+    private Sheet sheet;
+    private Row row;
+    private Cell cell;
     private String filePath;
 
     public ExcelUtility(String filePath) {
@@ -24,11 +36,11 @@ public class ExcelUtility {
     }
 
     /**
-     * Read data from Excel file
+     * Read data from Excel file (.xlsx or .xls)
+     * Opened read-only from the file itself, so closing the workbook releases the file
      */
     public void readExcel() throws IOException {
-        FileInputStream fileInputStream = new FileInputStream(new File(filePath));
-        workbook = new XSSFWorkbook(fileInputStream);
+        workbook = WorkbookFactory.create(new File(filePath), null, true);
     }
 
     /**
@@ -78,23 +90,262 @@ public class ExcelUtility {
             Row dataRow = sheet.getRow(rowIndex);
             if (dataRow == null) continue;
 
-            Map<String, String> rowData = new LinkedHashMap<>();
-            for (int colIndex = 0; colIndex < headers.size(); colIndex++) {
-                Cell dataCell = dataRow.getCell(colIndex);
-                String value = "";
-                if (dataCell != null) {
-                    if (dataCell.getCellType() == CellType.NUMERIC) {
-                        value = String.valueOf((int) dataCell.getNumericCellValue());
-                    } else {
-                        value = dataCell.getStringCellValue();
+            data.add(readRow(dataRow, headers));
+        }
+        workbook.close();
+        return data;
+    }
+
+    /**
+     * Iterate sheet rows as maps, reading the sheet XML one row at a time (the first sheet if sheetName is null)
+     * Only .xlsx is streamed; an .xls workbook is read whole. The file stays open until the last row has been
+     * read or the iterator is closed, so callers that may stop early should close it.
+     */
+    public RowIterator iterateSheetData(String sheetName) throws IOException {
+        if (filePath.toLowerCase(Locale.ROOT).endsWith(".xls")) {
+            Iterator<Map<String, String>> rows = getSheetData(sheetName != null ? sheetName : getSheetName(0)).iterator();
+            return new RowIterator() {
+                @Override
+                public boolean hasNext() {
+                    return rows.hasNext();
+                }
+
+                @Override
+                public Map<String, String> next() {
+                    return rows.next();
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+        }
+        return new StreamingRowIterator(filePath, sheetName);
+    }
+
+    /**
+     * Rows of a sheet that may hold the workbook file open until closed
+     */
+    public interface RowIterator extends Iterator<Map<String, String>>, Closeable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Pull parser over the sheet XML of an .xlsx file; shared strings are looked up, not loaded into cells
+     */
+    private static class StreamingRowIterator implements RowIterator {
+        private final OPCPackage workbookPackage;
+        private final InputStream sheetStream;
+        private final XMLStreamReader xml;
+        private final SharedStrings sharedStrings;
+        private final List<String> headers = new ArrayList<>();
+        private Map<String, String> nextRow;
+        private int rowNumber;
+        private boolean closed;
+
+        StreamingRowIterator(String filePath, String sheetName) throws IOException {
+            OPCPackage openedPackage = null;
+            InputStream openedStream = null;
+            try {
+                openedPackage = OPCPackage.open(filePath, PackageAccess.READ);
+                XSSFReader reader = new XSSFReader(openedPackage);
+                XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+                while (sheets.hasNext()) {
+                    InputStream candidate = sheets.next();
+                    if (sheetName == null || sheetName.equals(sheets.getSheetName())) {
+                        openedStream = candidate;
+                        break;
                     }
+                    candidate.close();
+                }
+                if (openedStream == null) {
+                    throw new IllegalArgumentException("No sheet '" + sheetName + "' in " + filePath);
+                }
+                sharedStrings = new ReadOnlySharedStringsTable(openedPackage);
+                XMLInputFactory factory = XMLInputFactory.newFactory();
+                factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+                factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+                xml = factory.createXMLStreamReader(openedStream);
+                workbookPackage = openedPackage;
+                sheetStream = openedStream;
+            } catch (IOException | RuntimeException e) {
+                closeQuietly(openedStream, openedPackage);
+                throw e;
+            } catch (Exception e) {
+                closeQuietly(openedStream, openedPackage);
+                throw new IOException("Could not read " + filePath + ": " + e.getMessage(), e);
+            }
+
+            // Empty rows are left out of the XML, so the first <row> is the header only if it is row 1
+            Map<Integer, String> headerRow = readRow();
+            if (headerRow != null && rowNumber != 1) {
+                close();
+                throw new IllegalArgumentException("No header in row 1 of sheet '"
+                        + (sheetName != null ? sheetName : "first") + "' in " + filePath + "; first row is " + rowNumber);
+            }
+            if (headerRow != null) {
+                int columns = headerRow.isEmpty() ? 0 : Collections.max(headerRow.keySet()) + 1;
+                for (int colIndex = 0; colIndex < columns; colIndex++) {
+                    headers.add(headerRow.getOrDefault(colIndex, ""));
                 }
-                rowData.put(headers.get(colIndex), value);
             }
-            data.add(rowData);
         }
-        workbook.close();
-        return data;
+
+        @Override
+        public boolean hasNext() {
+            if (nextRow == null && !closed) {
+                Map<Integer, String> cells = readRow();
+                if (cells == null) {
+                    close();
+                } else {
+                    nextRow = new LinkedHashMap<>();
+                    for (int colIndex = 0; colIndex < headers.size(); colIndex++) {
+                        nextRow.put(headers.get(colIndex), cells.getOrDefault(colIndex, ""));
+                    }
+                }
+            }
+            return nextRow != null;
+        }
+
+        @Override
+        public Map<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map<String, String> row = nextRow;
+            nextRow = null;
+            return row;
+        }
+
+        /**
+         * Read the next &lt;row&gt; as column index to value, or null after the last row
+         * rowNumber is set to its 1-based number (the r attribute)
+         */
+        private Map<Integer, String> readRow() {
+            try {
+                while (xml.hasNext()) {
+                    if (xml.next() == XMLStreamConstants.START_ELEMENT && xml.getLocalName().equals("row")) {
+                        String reference = xml.getAttributeValue(null, "r");
+                        rowNumber = reference != null ? Integer.parseInt(reference) : rowNumber + 1;
+                        return readCells();
+                    }
+                }
+                return null;
+            } catch (XMLStreamException e) {
+                close();
+                throw new IllegalStateException("Could not read sheet row: " + e.getMessage(), e);
+            }
+        }
+
+        private Map<Integer, String> readCells() throws XMLStreamException {
+            Map<Integer, String> cells = new HashMap<>();
+            int column = -1;
+            String type = null;
+            StringBuilder value = new StringBuilder();
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String element = xml.getLocalName();
+                    if (element.equals("c")) {
+                        String reference = xml.getAttributeValue(null, "r");
+                        column = reference != null ? columnIndex(reference) : column + 1;
+                        type = xml.getAttributeValue(null, "t");
+                        value.setLength(0);
+                    } else if (element.equals("v") || element.equals("t")) {
+                        value.append(xml.getElementText());
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String element = xml.getLocalName();
+                    if (element.equals("c")) {
+                        cells.put(column, cellValue(type, value.toString()));
+                    } else if (element.equals("row")) {
+                        return cells;
+                    }
+                }
+            }
+            return cells;
+        }
+
+        /**
+         * Cell text the way readRow converts cells: numbers as whole numbers, text as is
+         */
+        private String cellValue(String type, String raw) {
+            if (raw.isEmpty()) {
+                return "";
+            }
+            if (type == null || type.equals("n")) {
+                return String.valueOf((int) Double.parseDouble(raw));
+            }
+            switch (type) {
+                case "s":
+                    return sharedStrings.getItemAt(Integer.parseInt(raw)).getString();
+                case "b":
+                    return raw.equals("1") ? "TRUE" : "FALSE";
+                default:
+                    // inlineStr, str (formula result) and e (error) hold their text directly
+                    return raw;
+            }
+        }
+
+        /**
+         * Zero-based column of a cell reference, e.g. 0 for A2 and 27 for AB7
+         */
+        private static int columnIndex(String reference) {
+            int column = 0;
+            for (int i = 0; i < reference.length() && Character.isLetter(reference.charAt(i)); i++) {
+                column = column * 26 + (Character.toUpperCase(reference.charAt(i)) - 'A' + 1);
+            }
+            return column - 1;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                nextRow = null;
+                try {
+                    xml.close();
+                } catch (XMLStreamException e) {
+                    System.err.println("Error closing sheet reader: " + e.getMessage());
+                }
+                closeQuietly(sheetStream, workbookPackage);
+            }
+        }
+
+        private static void closeQuietly(InputStream stream, OPCPackage openedPackage) {
+            try {
+                if (stream != null) {
+                    stream.close();
+                }
+            } catch (IOException e) {
+                System.err.println("Error closing sheet: " + e.getMessage());
+            }
+            if (openedPackage != null) {
+                // Opened read-only: revert releases the file without writing anything back
+                openedPackage.revert();
+            }
+        }
+    }
+
+    /**
+     * Convert data row to map keyed by header
+     */
+    private static Map<String, String> readRow(Row dataRow, List<String> headers) {
+        Map<String, String> rowData = new LinkedHashMap<>();
+        for (int colIndex = 0; colIndex < headers.size(); colIndex++) {
+            Cell dataCell = dataRow.getCell(colIndex);
+            String value = "";
+            if (dataCell != null) {
+                if (dataCell.getCellType() == CellType.NUMERIC) {
+                    value = String.valueOf((int) dataCell.getNumericCellValue());
+                } else {
+                    value = dataCell.getStringCellValue();
+                }
+            }
+            rowData.put(headers.get(colIndex), value);
+        }
+        return rowData;
     }
 
     /**
@@ -135,6 +386,16 @@ public class ExcelUtility {
         return rowCount;
     }
 
+    /**
+     * Get sheet name by index
+     */
+    public String getSheetName(int sheetIndex) throws IOException {
+        readExcel();
+        String sheetName = workbook.getSheetName(sheetIndex);
+        workbook.close();
+        return sheetName;
+    }
+
     /**
      * Get column count
      */
@@ -0,0 +1,89 @@
+package com.amazon.utilities;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder events of the framework: scenarios, steps, explicit waits and driver commands
+ * They appear in JDK Mission Control under "Amazon Test Framework", next to the JVM's own events.
+ * Without a running recording begin() and commit() do nothing, so emitting them costs nothing.
+ * Record with: mvn test -DargLine="-XX:StartFlightRecording=filename=test-output/framework.jfr"
+ */
+public final class FlightRecorderEvents {
+    private static final String CATEGORY = "Amazon Test Framework";
+
+    private FlightRecorderEvents() {
+    }
+
+    @Name("com.amazon.Scenario")
+    @Label("Scenario")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class ScenarioEvent extends Event {
+        @Label("Scenario")
+        public String scenario;
+
+        @Label("Tags")
+        public String tags;
+
+        @Label("Status")
+        public String status;
+    }
+
+    @Name("com.amazon.Step")
+    @Label("Step")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class StepEvent extends Event {
+        @Label("Scenario")
+        public String scenario;
+
+        @Label("Step Number")
+        public int step;
+
+        @Label("Failed")
+        public boolean failed;
+    }
+
+    @Name("com.amazon.Wait")
+    @Label("Explicit Wait")
+    @Category(CATEGORY)
+    @Description("WebDriverWait of BrowserInteractionUtility, from first poll to the condition being met or timing out")
+    @StackTrace(false)
+    public static class WaitEvent extends Event {
+        @Label("Locator")
+        public String locator;
+
+        @Label("Condition")
+        public String condition;
+
+        @Label("Outcome")
+        @Description("met, timeout or error")
+        public String outcome;
+
+        @Label("Timeout")
+        @Timespan(Timespan.MILLISECONDS)
+        public long timeout;
+    }
+
+    @Name("com.amazon.DriverCommand")
+    @Label("Driver Command")
+    @Category(CATEGORY)
+    @Description("One WebDriver, WebElement or navigation call, including its round trip to the driver")
+    @StackTrace(false)
+    public static class DriverCommandEvent extends Event {
+        @Label("Command")
+        public String command;
+
+        @Label("Target")
+        public String target;
+
+        @Label("Failed")
+        public boolean failed;
+    }
+}
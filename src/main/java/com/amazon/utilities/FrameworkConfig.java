@@ -0,0 +1,248 @@
+package com.amazon.utilities;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide immutable configuration snapshot
+ * Layers config.properties, FRAMEWORK_-prefixed environment variables and -D system properties (later layers win).
+ * The snapshot is replaced atomically on reload, so reads never take a lock.
+ */
+public final class FrameworkConfig {
+    public static final String DEFAULT_CONFIG_PATH = "src/test/resources/config/config.properties";
+    private static final String CONFIG_PATH_PROPERTY = "config.path";
+    private static final String ENVIRONMENT_PREFIX = "FRAMEWORK_";
+    private static final long RELOAD_DEBOUNCE_MS = 200;
+
+    private static volatile FrameworkConfig current;
+    private static Thread watcherThread;
+
+    private final Path sourcePath;
+    private final Map<String, String> fileValues;
+    private final Map<String, String> environment;
+    private final Map<String, String> systemProperties;
+
+    private FrameworkConfig(Path sourcePath, Map<String, String> fileValues,
+                            Map<String, String> environment, Map<String, String> systemProperties) {
+        this.sourcePath = sourcePath;
+        this.fileValues = fileValues;
+        this.environment = environment;
+        this.systemProperties = systemProperties;
+    }
+
+    /**
+     * Get current configuration snapshot, loading it on first use
+     * The file path can be overridden with -Dconfig.path
+     */
+    public static FrameworkConfig get() {
+        FrameworkConfig config = current;
+        if (config == null) {
+            synchronized (FrameworkConfig.class) {
+                config = current;
+                if (config == null) {
+                    config = load(Paths.get(System.getProperty(CONFIG_PATH_PROPERTY, DEFAULT_CONFIG_PATH)));
+                    current = config;
+                    if (config.getBoolean("config.hotReload", false)) {
+                        enableHotReload();
+                    }
+                }
+            }
+        }
+        return config;
+    }
+
+    /**
+     * Re-read the configuration file, environment and system properties and publish a new snapshot
+     */
+    public static FrameworkConfig reload() {
+        synchronized (FrameworkConfig.class) {
+            FrameworkConfig previous = current;
+            Path path = previous != null ? previous.sourcePath
+                    : Paths.get(System.getProperty(CONFIG_PATH_PROPERTY, DEFAULT_CONFIG_PATH));
+            current = load(path);
+            return current;
+        }
+    }
+
+    /**
+     * Watch the configuration file and reload the snapshot whenever it changes
+     * Intended for long-running soak jobs; safe to call more than once
+     */
+    public static synchronized void enableHotReload() {
+        if (watcherThread != null) {
+            return;
+        }
+        Path file = get().sourcePath.toAbsolutePath();
+        watcherThread = new Thread(() -> watch(file), "config-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+        System.out.println("Config hot reload enabled for " + file);
+    }
+
+    private static void watch(Path file) {
+        try (WatchService watchService = file.getFileSystem().newWatchService()) {
+            file.getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (file.getFileName().equals(event.context())) {
+                        changed = true;
+                    }
+                }
+                key.reset();
+                if (changed) {
+                    // Editors often write the file in several steps; let them finish
+                    TimeUnit.MILLISECONDS.sleep(RELOAD_DEBOUNCE_MS);
+                    try {
+                        reload();
+                        System.out.println("Config reloaded from " + file);
+                    } catch (UncheckedIOException e) {
+                        System.err.println("Config reload failed, keeping previous values: " + e.getMessage());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("Config watcher stopped: " + e.getMessage());
+        }
+    }
+
+    private static FrameworkConfig load(Path path) {
+        Properties properties = new Properties();
+        if (Files.exists(path)) {
+            try (InputStream inputStream = Files.newInputStream(path)) {
+                properties.load(inputStream);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read config file " + path, e);
+            }
+        } else {
+            System.err.println("Config file not found, using environment and system properties only: " + path);
+        }
+
+        Map<String, String> fileValues = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            fileValues.put(key, properties.getProperty(key));
+        }
+        Map<String, String> systemProperties = new HashMap<>();
+        Properties system = System.getProperties();
+        for (String key : system.stringPropertyNames()) {
+            systemProperties.put(key, system.getProperty(key));
+        }
+        return new FrameworkConfig(path, Map.copyOf(fileValues), Map.copyOf(System.getenv()), Map.copyOf(systemProperties));
+    }
+
+    /**
+     * Map a property key to its environment variable name, e.g. pageLoadTimeout -> FRAMEWORK_PAGE_LOAD_TIMEOUT
+     * The prefix keeps generic host variables such as BROWSER or BASE_URL from overriding the config
+     */
+    static String toEnvironmentName(String key) {
+        StringBuilder name = new StringBuilder(ENVIRONMENT_PREFIX);
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (Character.isUpperCase(c) && i > 0 && Character.isLowerCase(key.charAt(i - 1))) {
+                name.append('_');
+            }
+            name.append(Character.isLetterOrDigit(c) ? Character.toUpperCase(c) : '_');
+        }
+        return name.toString();
+    }
+
+    /**
+     * Get value by key, or null if no layer defines it
+     */
+    public String getProperty(String key) {
+        String value = systemProperties.get(key);
+        if (value == null) {
+            value = environment.get(toEnvironmentName(key));
+        }
+        if (value == null) {
+            value = fileValues.get(key);
+        }
+        return value;
+    }
+
+    /**
+     * Get value with default if key doesn't exist
+     */
+    public String getProperty(String key, String defaultValue) {
+        String value = getProperty(key);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Get integer value with default
+     */
+    public int getInt(String key, int defaultValue) {
+        String value = getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Config value for '" + key + "' is not an integer: " + value);
+        }
+    }
+
+    /**
+     * Get long value with default
+     */
+    public long getLong(String key, long defaultValue) {
+        String value = getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Config value for '" + key + "' is not a long: " + value);
+        }
+    }
+
+    /**
+     * Get decimal value with default
+     */
+    public double getDouble(String key, double defaultValue) {
+        String value = getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Config value for '" + key + "' is not a number: " + value);
+        }
+    }
+
+    /**
+     * Get boolean value with default
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * Check if any layer defines the key
+     */
+    public boolean containsProperty(String key) {
+        return getProperty(key) != null;
+    }
+
+    /**
+     * Get path of the configuration file this snapshot was loaded from
+     */
+    public Path getSourcePath() {
+        return sourcePath;
+    }
+}
@@ -1,6 +1,8 @@
 package com.amazon.utilities;
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 import java.io.*;
 import java.util.*;
@@ -61,6 +63,49 @@ public class JsonUtility {
         return list;
     }
 
+    /**
+     * Stream a top-level JSON array of objects one record at a time
+     * Only the current record is held in memory; the file is closed once the array is exhausted
+     */
+    public static Iterator<Map<String, String>> streamArray(String filePath) throws IOException {
+        JsonReader jsonReader = new JsonReader(new BufferedReader(new FileReader(filePath)));
+        jsonReader.beginArray();
+        return new Iterator<Map<String, String>>() {
+            private boolean open = true;
+
+            @Override
+            public boolean hasNext() {
+                if (!open) {
+                    return false;
+                }
+                try {
+                    if (jsonReader.peek() != JsonToken.END_ARRAY) {
+                        return true;
+                    }
+                    jsonReader.close();
+                    open = false;
+                    return false;
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not read " + filePath, e);
+                }
+            }
+
+            @Override
+            public Map<String, String> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                JsonObject jsonObject = JsonParser.parseReader(jsonReader).getAsJsonObject();
+                Map<String, String> map = new LinkedHashMap<>();
+                for (String key : jsonObject.keySet()) {
+                    JsonElement value = jsonObject.get(key);
+                    map.put(key, value.isJsonPrimitive() ? value.getAsString() : value.toString());
+                }
+                return map;
+            }
+        };
+    }
+
     /**
      * Write data to JSON file
      */
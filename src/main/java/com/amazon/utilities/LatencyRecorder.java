@@ -0,0 +1,196 @@
+package com.amazon.utilities;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Samples of named latency and memory metrics, summarized as percentiles
+ * Metric names are dotted, e.g. step.search, command.findElement or journey.total. Values are
+ * milliseconds, except metrics ending in Mb, which are megabytes. Results are written as JSON and
+ * compared with a baseline file of the same format to find regressions.
+ */
+public class LatencyRecorder {
+    public static final String[] PERCENTILES = {"p50", "p90", "p95", "p99"};
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final LatencyRecorder SHARED = new LatencyRecorder();
+
+    private final Map<String, Queue<Double>> samples = new ConcurrentHashMap<>();
+
+    /**
+     * Action timed by {@link #time(String, TimedAction)}
+     */
+    public interface TimedAction {
+        void run() throws Exception;
+    }
+
+    /**
+     * Get recorder shared by the whole JVM
+     */
+    public static LatencyRecorder shared() {
+        return SHARED;
+    }
+
+    /**
+     * Add one sample to a metric
+     */
+    public void record(String metric, double value) {
+        samples.computeIfAbsent(metric, name -> new ConcurrentLinkedQueue<>()).add(value);
+    }
+
+    /**
+     * Run the action and record its duration in milliseconds, also when it fails
+     */
+    public void time(String metric, TimedAction action) throws Exception {
+        long start = System.nanoTime();
+        try {
+            action.run();
+        } finally {
+            record(metric, (System.nanoTime() - start) / 1e6);
+        }
+    }
+
+    /**
+     * Drop all samples, e.g. after warmup iterations
+     */
+    public void reset() {
+        samples.clear();
+    }
+
+    /**
+     * Count, mean, max and percentiles of every metric, sorted by name
+     */
+    public Map<String, Map<String, Double>> summarize() {
+        Map<String, Map<String, Double>> summary = new TreeMap<>();
+        for (Map.Entry<String, Queue<Double>> entry : samples.entrySet()) {
+            double[] values = entry.getValue().stream().mapToDouble(Double::doubleValue).sorted().toArray();
+            if (values.length == 0) {
+                continue;
+            }
+            Map<String, Double> statistics = new LinkedHashMap<>();
+            statistics.put("count", (double) values.length);
+            statistics.put("mean", round(Arrays.stream(values).average().orElse(0)));
+            for (String percentile : PERCENTILES) {
+                statistics.put(percentile, round(percentile(values, Integer.parseInt(percentile.substring(1)))));
+            }
+            statistics.put("max", round(values[values.length - 1]));
+            summary.put(entry.getKey(), statistics);
+        }
+        return summary;
+    }
+
+    /**
+     * Nearest-rank percentile of sorted values
+     */
+    static double percentile(double[] sortedValues, int percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sortedValues.length);
+        return sortedValues[Math.max(0, Math.min(sortedValues.length - 1, rank - 1))];
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    /**
+     * Write the summary as JSON
+     */
+    public void writeJson(Path file) throws IOException {
+        JsonObject root = new JsonObject();
+        root.addProperty("java", System.getProperty("java.version"));
+        root.addProperty("processors", Runtime.getRuntime().availableProcessors());
+        root.add("metrics", GSON.toJsonTree(summarize()));
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            GSON.toJson(root, writer);
+        }
+    }
+
+    /**
+     * Read the metrics of a file written by {@link #writeJson(Path)}
+     */
+    public static Map<String, Map<String, Double>> readJson(Path file) throws IOException {
+        Map<String, Map<String, Double>> metrics = new TreeMap<>();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            JsonObject root = JsonParser.parseReader(reader).getAsJsonObject();
+            for (Map.Entry<String, JsonElement> metric : root.getAsJsonObject("metrics").entrySet()) {
+                Map<String, Double> statistics = new LinkedHashMap<>();
+                for (Map.Entry<String, JsonElement> statistic : metric.getValue().getAsJsonObject().entrySet()) {
+                    statistics.put(statistic.getKey(), statistic.getValue().getAsDouble());
+                }
+                metrics.put(metric.getKey(), statistics);
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Compare this run with a baseline; returns one line per regressed metric and percentile
+     * A percentile regresses when it exceeds the baseline by more than tolerance (0.2 = 20%) and by more
+     * than the absolute floor (minDeltaMs, or minDeltaMb for memory metrics), so tiny timings don't flap.
+     * A metric only in the baseline or only in this run is reported too, as nothing was compared for it.
+     */
+    public List<String> findRegressions(Map<String, Map<String, Double>> baseline, List<String> percentiles,
+                                        double tolerance, double minDeltaMs, double minDeltaMb) {
+        for (String percentile : percentiles) {
+            if (!Arrays.asList(PERCENTILES).contains(percentile)) {
+                throw new IllegalArgumentException("Unknown percentile '" + percentile + "', expected one of "
+                        + Arrays.toString(PERCENTILES));
+            }
+        }
+        List<String> regressions = new ArrayList<>();
+        Map<String, Map<String, Double>> current = summarize();
+        for (String metric : baseline.keySet()) {
+            if (!current.containsKey(metric)) {
+                regressions.add(metric + ": in the baseline but not measured in this run");
+            }
+        }
+        for (Map.Entry<String, Map<String, Double>> metric : current.entrySet()) {
+            Map<String, Double> previous = baseline.get(metric.getKey());
+            if (previous == null) {
+                regressions.add(metric.getKey() + ": not in the baseline; record a new one if the metric was added");
+                continue;
+            }
+            boolean memory = metric.getKey().endsWith("Mb");
+            for (String percentile : percentiles) {
+                Double before = previous.get(percentile);
+                Double after = metric.getValue().get(percentile);
+                if (before == null) {
+                    regressions.add(metric.getKey() + " " + percentile + ": not in the baseline");
+                    continue;
+                }
+                double delta = after - before;
+                if (delta > before * tolerance && delta > (memory ? minDeltaMb : minDeltaMs)) {
+                    regressions.add(String.format("%s %s: %.1f -> %.1f %s (+%.0f%%)", metric.getKey(), percentile,
+                            before, after, memory ? "MB" : "ms", before > 0 ? delta / before * 100 : 100));
+                }
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * Bytes allocated so far by the current thread, or -1 if the JVM can't tell
+     */
+    public static long currentThreadAllocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+}
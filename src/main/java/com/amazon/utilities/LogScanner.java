@@ -0,0 +1,372 @@
+package com.amazon.utilities;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parallel scanner for error signatures in large log files
+ * Splits a memory-mapped file into newline-aligned chunks and searches them with fork/join,
+ * matching directly on the raw bytes without building a String per line
+ */
+public class LogScanner {
+    private static final long DEFAULT_CHUNK_SIZE = 32L * 1024 * 1024;
+    private static final int DEFAULT_MAX_OFFSETS = 1000;
+    private static final int BOUNDARY_WINDOW_SIZE = 64 * 1024;
+
+    private final List<Signature> signatures;
+    private final long chunkSize;
+    private final int maxOffsetsPerSignature;
+
+    /**
+     * Constructor with default chunk size and offset limit
+     */
+    public LogScanner(Signature... signatures) {
+        this(Arrays.asList(signatures), DEFAULT_CHUNK_SIZE, DEFAULT_MAX_OFFSETS);
+    }
+
+    /**
+     * Constructor with custom chunk size and number of offsets kept per signature
+     */
+    public LogScanner(List<Signature> signatures, long chunkSize, int maxOffsetsPerSignature) {
+        if (signatures.isEmpty()) {
+            throw new IllegalArgumentException("At least one signature is required");
+        }
+        if (chunkSize <= 0 || chunkSize > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("Chunk size must be between 1 and " + Integer.MAX_VALUE / 2);
+        }
+        Set<String> names = new HashSet<>();
+        for (Signature signature : signatures) {
+            // Results are looked up by name, so a second signature with the same name would be unreachable
+            if (!names.add(signature.getName())) {
+                throw new IllegalArgumentException("Duplicate signature name: " + signature.getName());
+            }
+        }
+        this.signatures = List.copyOf(signatures);
+        this.chunkSize = chunkSize;
+        this.maxOffsetsPerSignature = maxOffsetsPerSignature;
+    }
+
+    /**
+     * Scan file for all signatures
+     */
+    public ScanResult scan(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long[] boundaries = chunkBoundaries(channel);
+            Partial partial = ForkJoinPool.commonPool()
+                    .invoke(new ChunkTask(channel, boundaries, 0, boundaries.length - 1));
+            return new ScanResult(signatures, partial);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Compute chunk start offsets, moving each split point forward to just past the next newline
+     * The returned array ends with the file size
+     */
+    private long[] chunkBoundaries(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        long position = 0;
+        while (position + chunkSize < size) {
+            long boundary = nextLineStart(channel, position + chunkSize, size);
+            boundaries.add(boundary);
+            position = boundary;
+        }
+        if (position < size) {
+            boundaries.add(size);
+        }
+        return boundaries.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Find offset of first byte after the next newline at or after position
+     */
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        for (long windowStart = position; windowStart < size; windowStart += BOUNDARY_WINDOW_SIZE) {
+            int length = (int) Math.min(BOUNDARY_WINDOW_SIZE, size - windowStart);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, length);
+            for (int i = 0; i < length; i++) {
+                if (buffer.get(i) == '\n') {
+                    return windowStart + i + 1;
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Search one mapped chunk for every signature
+     */
+    private Partial scanChunk(FileChannel channel, long start, long end) throws IOException {
+        Partial partial = new Partial(signatures.size());
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        for (int s = 0; s < signatures.size(); s++) {
+            Signature signature = signatures.get(s);
+            if (signature.literal != null) {
+                scanLiteral(buffer, signature.literal, start, partial, s);
+            } else {
+                scanRegex(buffer, signature.regex, start, partial, s);
+            }
+        }
+        return partial;
+    }
+
+    /**
+     * Byte-level literal search
+     */
+    private void scanLiteral(ByteBuffer buffer, byte[] literal, long baseOffset, Partial partial, int signatureIndex) {
+        int limit = buffer.limit() - literal.length;
+        byte first = literal[0];
+        for (int i = 0; i <= limit; i++) {
+            if (buffer.get(i) != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < literal.length && buffer.get(i + j) == literal[j]) {
+                j++;
+            }
+            if (j == literal.length) {
+                partial.record(signatureIndex, baseOffset + i, maxOffsetsPerSignature);
+                i += literal.length - 1;
+            }
+        }
+    }
+
+    /**
+     * Regex search over a Latin-1 view of the bytes, so offsets are byte offsets
+     * The matcher is confined to one line at a time, so no match can run past a chunk boundary
+     */
+    private void scanRegex(ByteBuffer buffer, Pattern regex, long baseOffset, Partial partial, int signatureIndex) {
+        int limit = buffer.limit();
+        Matcher matcher = regex.matcher(new ByteCharSequence(buffer, 0, limit));
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            matcher.region(lineStart, lineEnd);
+            while (matcher.find()) {
+                partial.record(signatureIndex, baseOffset + matcher.start(), maxOffsetsPerSignature);
+            }
+            lineStart = lineEnd + 1;
+        }
+    }
+
+    /**
+     * Fork/join task over a range of chunks
+     */
+    private class ChunkTask extends RecursiveTask<Partial> {
+        private final FileChannel channel;
+        private final long[] boundaries;
+        private final int fromChunk;
+        private final int toChunk;
+
+        ChunkTask(FileChannel channel, long[] boundaries, int fromChunk, int toChunk) {
+            this.channel = channel;
+            this.boundaries = boundaries;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (toChunk <= fromChunk) {
+                return new Partial(signatures.size());
+            }
+            if (toChunk - fromChunk == 1) {
+                try {
+                    return scanChunk(channel, boundaries[fromChunk], boundaries[toChunk]);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            int middle = (fromChunk + toChunk) >>> 1;
+            ChunkTask left = new ChunkTask(channel, boundaries, fromChunk, middle);
+            ChunkTask right = new ChunkTask(channel, boundaries, middle, toChunk);
+            left.fork();
+            Partial rightResult = right.compute();
+            return left.join().merge(rightResult, maxOffsetsPerSignature);
+        }
+    }
+
+    /**
+     * Per-chunk match counts and offsets, merged left to right so offsets stay in file order
+     */
+    private static class Partial {
+        private final long[] counts;
+        private final List<List<Long>> offsets;
+
+        Partial(int signatureCount) {
+            counts = new long[signatureCount];
+            offsets = new ArrayList<>(signatureCount);
+            for (int i = 0; i < signatureCount; i++) {
+                offsets.add(new ArrayList<>());
+            }
+        }
+
+        void record(int signatureIndex, long offset, int maxOffsets) {
+            counts[signatureIndex]++;
+            List<Long> signatureOffsets = offsets.get(signatureIndex);
+            if (signatureOffsets.size() < maxOffsets) {
+                signatureOffsets.add(offset);
+            }
+        }
+
+        Partial merge(Partial right, int maxOffsets) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += right.counts[i];
+                List<Long> signatureOffsets = offsets.get(i);
+                for (Long offset : right.offsets.get(i)) {
+                    if (signatureOffsets.size() >= maxOffsets) {
+                        break;
+                    }
+                    signatureOffsets.add(offset);
+                }
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Zero-copy CharSequence view of a byte buffer, one char per byte
+     */
+    private static class ByteCharSequence implements CharSequence {
+        private final ByteBuffer buffer;
+        private final int start;
+        private final int end;
+
+        ByteCharSequence(ByteBuffer buffer, int start, int end) {
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (buffer.get(start + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            return new ByteCharSequence(buffer, start + from, start + to);
+        }
+
+        @Override
+        public String toString() {
+            byte[] bytes = new byte[length()];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = buffer.get(start + i);
+            }
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    /**
+     * Error signature to search for, either a literal or a regular expression
+     * Signatures are matched within a single line; regular expressions see each byte as one
+     * ISO-8859-1 character, so ASCII patterns behave as usual. Names must be unique within a scanner.
+     */
+    public static class Signature {
+        private final String name;
+        private final byte[] literal;
+        private final Pattern regex;
+
+        private Signature(String name, byte[] literal, Pattern regex) {
+            this.name = name;
+            this.literal = literal;
+            this.regex = regex;
+        }
+
+        /**
+         * Literal signature, matched on its UTF-8 bytes
+         */
+        public static Signature literal(String text) {
+            if (text.isEmpty() || text.indexOf('\n') >= 0) {
+                throw new IllegalArgumentException("Literal signature must be a non-empty single line: " + text);
+            }
+            return new Signature(text, text.getBytes(StandardCharsets.UTF_8), null);
+        }
+
+        /**
+         * Regular expression signature, matched against one line at a time; ^ and $ anchor to the line
+         */
+        public static Signature regex(String expression) {
+            return new Signature(expression, null, Pattern.compile(expression));
+        }
+
+        /**
+         * Get signature name (the literal text or expression)
+         */
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Match counts and byte offsets per signature
+     */
+    public static class ScanResult {
+        private final Map<String, Long> counts = new LinkedHashMap<>();
+        private final Map<String, List<Long>> offsets = new LinkedHashMap<>();
+
+        private ScanResult(List<Signature> signatures, Partial partial) {
+            for (int i = 0; i < signatures.size(); i++) {
+                String name = signatures.get(i).getName();
+                counts.put(name, partial.counts[i]);
+                offsets.put(name, Collections.unmodifiableList(partial.offsets.get(i)));
+            }
+        }
+
+        /**
+         * Get number of matches for signature
+         */
+        public long getMatchCount(String signatureName) {
+            return counts.getOrDefault(signatureName, 0L);
+        }
+
+        /**
+         * Get byte offsets of matches for signature, in file order and capped at the scanner's limit
+         */
+        public List<Long> getMatchOffsets(String signatureName) {
+            return offsets.getOrDefault(signatureName, Collections.emptyList());
+        }
+
+        /**
+         * Check if signature matched at least once
+         */
+        public boolean hasMatches(String signatureName) {
+            return getMatchCount(signatureName) > 0;
+        }
+
+        /**
+         * Get match counts for all signatures
+         */
+        public Map<String, Long> getMatchCounts() {
+            return Collections.unmodifiableMap(counts);
+        }
+
+        @Override
+        public String toString() {
+            return counts.toString();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.amazon.utilities;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Longest-processing-time-first scheduling from historical durations
+ * Workers of a thread pool take the next item as soon as they are free, so handing them the
+ * longest items first keeps the slowest scenarios from landing on one thread at the end
+ */
+public class LptScheduler {
+
+    /**
+     * Order items longest first; ties are broken by key so the order is the same on every run
+     */
+    public static <T> List<T> order(List<T> items, Function<T, String> keyFunction, ToLongFunction<T> durationFunction) {
+        List<T> ordered = new ArrayList<>(items);
+        ordered.sort(Comparator.comparingLong(durationFunction).reversed()
+                .thenComparing(keyFunction, Comparator.naturalOrder()));
+        return ordered;
+    }
+
+    /**
+     * Predict wall time of running durations in the given order on a pool of workers
+     * Each item starts on whichever worker becomes free first, as in a thread pool
+     */
+    public static long predictMakespan(List<Long> durationsInOrder, int workers) {
+        PriorityQueue<Long> workerFinishTimes = new PriorityQueue<>();
+        for (int i = 0; i < Math.max(1, workers); i++) {
+            workerFinishTimes.add(0L);
+        }
+        for (long duration : durationsInOrder) {
+            workerFinishTimes.add(workerFinishTimes.poll() + duration);
+        }
+        long makespan = 0;
+        for (long finishTime : workerFinishTimes) {
+            makespan = Math.max(makespan, finishTime);
+        }
+        return makespan;
+    }
+}
@@ -0,0 +1,187 @@
+package com.amazon.utilities;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Performance budgets for pages, checked against timings measured in the browser
+ * Budgets are set per page object in config as budget.&lt;PageClass&gt;.&lt;metric&gt;, e.g.
+ * budget.AmazonHomePage.loadMs=5000, with budget.default.&lt;metric&gt; for every page. Metrics are those
+ * of WebVitalsCollector.measure plus renderMs (LCP, or FCP where the browser has no LCP).
+ * Timings are read once the page finished loading (up to budget.loadTimeoutSec); a budgeted metric
+ * the browser didn't report counts as a violation, as it can't be shown to be within budget.
+ * A violation throws {@link BudgetExceededError}, an AssertionError subtype, so reports can tell
+ * budget failures apart from functional ones; with budget.enforce=false it is only recorded.
+ */
+public class PerformanceBudget {
+    private static final String[] METRICS = {"ttfbMs", "fcpMs", "lcpMs", "renderMs", "domContentLoadedMs", "loadMs",
+            "cls", "resourceCount", "transferKb"};
+    private static final ThreadLocal<List<String>> VIOLATIONS = ThreadLocal.withInitial(ArrayList::new);
+    // readyState turns complete before the load event has run; loadEventEnd is set once it has
+    private static final String LOAD_COMPLETE_SCRIPT = "var nav = performance.getEntriesByType('navigation')[0];"
+            + "return document.readyState === 'complete' && (!nav || nav.loadEventEnd > 0);";
+
+    private final String pageName;
+
+    /**
+     * Measured value above its budget, or a budgeted metric that wasn't measured
+     */
+    public static class BudgetExceededError extends AssertionError {
+        private final String pageName;
+        private final Map<String, Double> measured;
+
+        public BudgetExceededError(String message, String pageName, Map<String, Double> measured) {
+            super(message);
+            this.pageName = pageName;
+            this.measured = measured;
+        }
+
+        public String getPageName() {
+            return pageName;
+        }
+
+        /**
+         * All metrics measured for the check, not only the one over budget
+         */
+        public Map<String, Double> getMeasured() {
+            return measured;
+        }
+    }
+
+    private PerformanceBudget(String pageName) {
+        this.pageName = pageName;
+    }
+
+    /**
+     * Budgets of a page object class, e.g. forPage(AmazonHomePage.class)
+     */
+    public static PerformanceBudget forPage(Class<?> pageObject) {
+        return new PerformanceBudget(pageObject.getSimpleName());
+    }
+
+    /**
+     * Budgets of a page by name, e.g. forPage("AmazonHomePage")
+     */
+    public static PerformanceBudget forPage(String pageName) {
+        return new PerformanceBudget(pageName);
+    }
+
+    /**
+     * Configured budgets of this page: its own keys over budget.default.* keys
+     */
+    public Map<String, Double> getBudgets() {
+        FrameworkConfig config = FrameworkConfig.get();
+        Map<String, Double> budgets = new LinkedHashMap<>();
+        for (String metric : METRICS) {
+            double budget = config.getDouble("budget." + pageName + "." + metric, config.getDouble("budget.default." + metric, -1));
+            if (budget >= 0) {
+                budgets.put(metric, budget);
+            }
+        }
+        return budgets;
+    }
+
+    /**
+     * Check all configured budgets of this page against the current page in the browser
+     * Returns the measured values
+     */
+    public Map<String, Double> assertWithinBudgets(WebDriver driver) {
+        return check(driver, getBudgets());
+    }
+
+    /**
+     * Check one metric against an explicit budget, e.g. assertWithin(driver, "loadMs", 2000)
+     */
+    public Map<String, Double> assertWithin(WebDriver driver, String metric, double budget) {
+        if (!Arrays.asList(METRICS).contains(metric)) {
+            throw new IllegalArgumentException("Unknown performance metric '" + metric + "', expected one of " + Arrays.toString(METRICS));
+        }
+        return check(driver, Map.of(metric, budget));
+    }
+
+    private Map<String, Double> check(WebDriver driver, Map<String, Double> budgets) {
+        awaitLoadComplete(driver);
+        Map<String, Double> measured = new LinkedHashMap<>(WebVitalsCollector.measure(driver));
+        Double render = measured.getOrDefault("lcpMs", measured.get("fcpMs"));
+        if (render != null) {
+            measured.put("renderMs", render);
+        }
+
+        List<String> exceeded = new ArrayList<>();
+        List<String> notMeasured = new ArrayList<>();
+        for (Map.Entry<String, Double> budget : budgets.entrySet()) {
+            Double value = measured.get(budget.getKey());
+            if (value == null) {
+                notMeasured.add(budget.getKey() + " not measured (budget " + format(budget.getKey(), budget.getValue()) + ")");
+            } else if (value > budget.getValue()) {
+                exceeded.add(budget.getKey() + " " + format(budget.getKey(), value) + " > budget "
+                        + format(budget.getKey(), budget.getValue()));
+            }
+        }
+        if (!exceeded.isEmpty() || !notMeasured.isEmpty()) {
+            List<String> failures = new ArrayList<>(exceeded);
+            failures.addAll(notMeasured);
+            String message = "Performance budget " + (exceeded.isEmpty() ? "not measured" : "exceeded") + " on " + pageName
+                    + ": " + String.join(", ", failures) + " (measured " + format(measured) + ")";
+            VIOLATIONS.get().add(message);
+            if (FrameworkConfig.get().getBoolean("budget.enforce", true)) {
+                throw new BudgetExceededError(message, pageName, measured);
+            }
+            System.out.println(message);
+        }
+        return measured;
+    }
+
+    /**
+     * Wait until the page's load event has finished, so load timings are final; on timeout measure anyway
+     */
+    private void awaitLoadComplete(WebDriver driver) {
+        long timeoutSeconds = FrameworkConfig.get().getLong("budget.loadTimeoutSec", 30);
+        try {
+            new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds)).until(
+                    browser -> Boolean.TRUE.equals(((JavascriptExecutor) browser).executeScript(LOAD_COMPLETE_SCRIPT)));
+        } catch (TimeoutException e) {
+            System.out.println("Performance budget " + pageName + ": page still loading after " + timeoutSeconds
+                    + " s, measuring what the browser reported so far");
+        }
+    }
+
+    /**
+     * Number of budget violations recorded on this thread and not drained yet, enforced or not
+     */
+    public static int violationCount() {
+        return VIOLATIONS.get().size();
+    }
+
+    /**
+     * Budget violations on this thread since the last call, enforced or not
+     */
+    public static List<String> drainViolations() {
+        List<String> violations = new ArrayList<>(VIOLATIONS.get());
+        VIOLATIONS.get().clear();
+        return violations;
+    }
+
+    /**
+     * Measured values as "loadMs=1234, fcpMs=456, ..."
+     */
+    public static String format(Map<String, Double> measured) {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (Map.Entry<String, Double> entry : measured.entrySet()) {
+            joiner.add(entry.getKey() + "=" + format(entry.getKey(), entry.getValue()));
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * CLS is a score below 1, everything else whole milliseconds, counts or KB
+     */
+    private static String format(String metric, double value) {
+        return String.format(metric.equals("cls") ? "%.3f" : "%.0f", value);
+    }
+}
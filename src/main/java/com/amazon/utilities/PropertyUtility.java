@@ -5,9 +5,10 @@ import java.util.*;
 
 /**
  * Utility class for handling Property file operations
+ * For framework settings use FrameworkConfig, which loads config.properties once per process
  */
 public class PropertyUtility {
-    private static Properties properties;
+    private final Properties properties;
 
     public PropertyUtility(String filePath) throws IOException {
         properties = new Properties();
@@ -0,0 +1,319 @@
+package com.amazon.utilities;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntConsumer;
+
+/**
+ * Limits how many browser sessions run at once from sampled host load
+ * Every governor.intervalSec it samples host CPU, available memory and the RSS of each browser's
+ * process tree. Under pressure (CPU above governor.cpuHigh or available memory below
+ * governor.minAvailableMemoryMb) the session limit drops by one; with spare CPU and room for another
+ * browser it rises by one, between governor.minSessions and governor.maxSessions.
+ * Every open browser holds a session slot, including BrowserPool's idle and starting browsers; when the
+ * limit drops below the browsers open, idle ones are quit to make up the difference.
+ * Browsers above governor.maxBrowserRssMb are marked for recycling and replaced at the next test boundary.
+ * Slots are guarded by a ReentrantLock, not a monitor, so virtual threads waiting for one unmount
+ * from their carrier instead of pinning it.
+ */
+public class ResourceGovernor {
+    private static final long MB = 1024 * 1024;
+    private static volatile ResourceGovernor shared;
+
+    private final boolean enabled;
+    private final int minSessions;
+    private final int maxSessions;
+    private final Map<Integer, Long> sessionRss = new ConcurrentHashMap<>();
+    private final Set<Integer> recycleRequested = ConcurrentHashMap.newKeySet();
+    private final List<IntConsumer> surplusListeners = new CopyOnWriteArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+    private int limit;
+    private int active;
+
+    private ResourceGovernor(boolean enabled, int minSessions, int maxSessions) {
+        this.enabled = enabled;
+        this.minSessions = minSessions;
+        this.maxSessions = maxSessions;
+        this.limit = maxSessions;
+    }
+
+    /**
+     * Get governor shared by the whole JVM, sampling in the background when governor.enabled
+     */
+    public static ResourceGovernor shared() {
+        ResourceGovernor governor = shared;
+        if (governor == null) {
+            synchronized (ResourceGovernor.class) {
+                governor = shared;
+                if (governor == null) {
+                    FrameworkConfig config = FrameworkConfig.get();
+                    // Browser tests mostly wait on I/O, so the default cap is what the run asks for: a browser per
+                    // thread plus the pool's warm ones; only measured host pressure lowers it
+                    int threads = Math.max(1, config.getInt("dataproviderthreadcount", 1));
+                    int poolSize = Math.max(0, config.getInt("browserPool.size", threads));
+                    int maxSessions = Math.max(1, config.getInt("governor.maxSessions", threads + poolSize));
+                    int minSessions = Math.max(1, Math.min(maxSessions, config.getInt("governor.minSessions", 1)));
+                    boolean enabled = config.getBoolean("governor.enabled", true);
+                    governor = new ResourceGovernor(enabled, minSessions, maxSessions);
+                    if (enabled) {
+                        governor.startSampling(Math.max(1, config.getLong("governor.intervalSec", 5)));
+                    }
+                    shared = governor;
+                }
+            }
+        }
+        return governor;
+    }
+
+    private void startSampling(long intervalSeconds) {
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "resource-governor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleWithFixedDelay(() -> {
+            try {
+                sample();
+            } catch (RuntimeException e) {
+                System.err.println("Resource governor sample failed: " + e.getMessage());
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Wait until another browser session may be opened, then count it as active
+     */
+    public void acquireSession() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        lock.lockInterruptibly();
+        try {
+            if (active >= limit) {
+                System.out.println("Resource governor: waiting for a session slot (" + active + "/" + limit + " in use)");
+            }
+            while (active >= limit) {
+                slotFreed.await();
+            }
+            active++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Count a session as active if a slot is free right now, without waiting
+     */
+    public boolean tryAcquireSession() {
+        if (!enabled) {
+            return true;
+        }
+        lock.lock();
+        try {
+            if (active >= limit) {
+                return false;
+            }
+            active++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Count a session as closed and wake a waiting test
+     */
+    public void releaseSession() {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (active > 0) {
+                active--;
+            }
+            slotFreed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Call listener with the number of sessions above the limit whenever the limit drops below the sessions open
+     * BrowserPool quits that many idle browsers, if it has them
+     */
+    public void onSurplus(IntConsumer listener) {
+        surplusListeners.add(listener);
+    }
+
+    /**
+     * Track memory of a started browser, identified by its driver service port
+     */
+    public void registerBrowser(int driverPort) {
+        if (driverPort > 0) {
+            sessionRss.put(driverPort, 0L);
+        }
+    }
+
+    /**
+     * Stop tracking browser once it is quit
+     */
+    public void unregisterBrowser(int driverPort) {
+        sessionRss.remove(driverPort);
+        recycleRequested.remove(driverPort);
+    }
+
+    /**
+     * Check if browser exceeded governor.maxBrowserRssMb and should be replaced instead of reused
+     */
+    public boolean isRecycleRequested(int driverPort) {
+        return recycleRequested.contains(driverPort);
+    }
+
+    /**
+     * Get current session limit
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void setLimit(int newLimit, String reason) {
+        int surplus;
+        lock.lock();
+        try {
+            if (newLimit == limit) {
+                return;
+            }
+            System.out.println("Resource governor: session limit " + limit + " -> " + newLimit + " (" + reason + ")");
+            limit = newLimit;
+            slotFreed.signalAll();
+            surplus = active - limit;
+        } finally {
+            lock.unlock();
+        }
+        // Outside the lock: listeners quit browsers, which releases their sessions
+        if (surplus > 0) {
+            for (IntConsumer listener : surplusListeners) {
+                listener.accept(surplus);
+            }
+        }
+    }
+
+    /**
+     * Take one sample and adjust the limit and recycle marks
+     */
+    void sample() {
+        FrameworkConfig config = FrameworkConfig.get();
+        double cpuLoad = hostCpuLoad();
+        long availableMb = availableMemoryBytes() / MB;
+
+        long maxBrowserRssMb = config.getLong("governor.maxBrowserRssMb", 1500);
+        long totalRssMb = 0;
+        for (Integer port : sessionRss.keySet()) {
+            long rssMb = processTreeRssBytes(port) / MB;
+            sessionRss.put(port, rssMb);
+            totalRssMb += rssMb;
+            if (maxBrowserRssMb > 0 && rssMb > maxBrowserRssMb && recycleRequested.add(port)) {
+                System.out.println("Resource governor: browser on port " + port + " uses " + rssMb
+                        + " MB, recycling it after the current test");
+            }
+        }
+        long averageBrowserMb = sessionRss.isEmpty() ? 0 : totalRssMb / sessionRss.size();
+
+        double cpuHigh = config.getDouble("governor.cpuHigh", 0.85);
+        double cpuLow = config.getDouble("governor.cpuLow", 0.60);
+        long minAvailableMb = config.getLong("governor.minAvailableMemoryMb", 1024);
+        String load = String.format("cpu %.0f%%, available memory %d MB", cpuLoad * 100, availableMb);
+
+        int currentLimit = getLimit();
+        if (cpuLoad > cpuHigh || availableMb < minAvailableMb) {
+            setLimit(Math.max(minSessions, currentLimit - 1), load);
+        } else if (cpuLoad >= 0 && cpuLoad < cpuLow && availableMb - averageBrowserMb > minAvailableMb) {
+            setLimit(Math.min(maxSessions, currentLimit + 1), load);
+        }
+    }
+
+    /**
+     * Host CPU load between 0 and 1, or -1 if the JVM can't tell
+     */
+    static double hostCpuLoad() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            return os.getCpuLoad();
+        }
+        return -1;
+    }
+
+    /**
+     * Memory available to new processes: MemAvailable from /proc/meminfo on Linux, else free physical memory
+     */
+    static long availableMemoryBytes() {
+        Path meminfo = Paths.get("/proc/meminfo");
+        if (Files.isReadable(meminfo)) {
+            try {
+                for (String line : Files.readAllLines(meminfo)) {
+                    if (line.startsWith("MemAvailable:")) {
+                        return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                // Fall back to the JVM's view
+            }
+        }
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            return os.getFreeMemorySize();
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Summed RSS of the driver process on the port and all its descendants (the browser's processes)
+     * Shared pages are counted once per process, so this overstates Chrome's real footprint somewhat
+     */
+    static long processTreeRssBytes(int driverPort) {
+        long total = 0;
+        List<ProcessHandle> drivers = BrowserReaper.findDriverProcesses(driverPort);
+        for (ProcessHandle driver : drivers) {
+            total += rssBytes(driver.pid());
+            for (ProcessHandle child : driver.descendants().toArray(ProcessHandle[]::new)) {
+                total += rssBytes(child.pid());
+            }
+        }
+        return total;
+    }
+
+    /**
+     * VmRSS from /proc/<pid>/status; 0 where /proc is not available
+     */
+    private static long rssBytes(long pid) {
+        Path status = Paths.get("/proc", String.valueOf(pid), "status");
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Process exited or no /proc
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,162 @@
+package com.amazon.utilities;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Timeline of the whole run in Chrome trace-event format: one track per thread with its scenarios,
+ * steps, waits, screenshots, browser launches and report flushes as nested spans
+ * With timeline.enabled, spans are collected in memory and written to output.dir/timeline/run-timeline.json
+ * at the end of the run; open it at ui.perfetto.dev or chrome://tracing to see idle gaps, threads
+ * waiting on each other and how evenly work was spread. Disabled, begin() returns a span that does nothing.
+ */
+public final class RunTimeline {
+    private static final long ORIGIN_NANOS = System.nanoTime();
+    private static final long PID = ProcessHandle.current().pid();
+    private static final Span NO_OP = new Span() {
+        @Override
+        public Span arg(String key, Object value) {
+            return this;
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+    private static final Queue<Recorded> SPANS = new ConcurrentLinkedQueue<>();
+    private static final Map<Long, String> THREAD_NAMES = new ConcurrentHashMap<>();
+    private static final Gson GSON = new Gson();
+
+    /**
+     * Span started by {@link #begin(String, String)}; ends when closed, so it fits try-with-resources
+     */
+    public interface Span extends AutoCloseable {
+        /**
+         * Add a detail shown when the span is selected, e.g. the browser or the step's outcome
+         */
+        Span arg(String key, Object value);
+
+        @Override
+        void close();
+    }
+
+    private static class Recorded implements Span {
+        private final String category;
+        private final String name;
+        private final long threadId;
+        private final long startNanos = System.nanoTime();
+        private long endNanos;
+        private Map<String, Object> args;
+        private boolean closed;
+
+        Recorded(String category, String name, long threadId) {
+            this.category = category;
+            this.name = name;
+            this.threadId = threadId;
+        }
+
+        @Override
+        public synchronized Span arg(String key, Object value) {
+            if (args == null) {
+                args = new LinkedHashMap<>();
+            }
+            args.put(key, value);
+            return this;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!closed) {
+                closed = true;
+                endNanos = System.nanoTime();
+                SPANS.add(this);
+            }
+        }
+    }
+
+    private RunTimeline() {
+    }
+
+    public static boolean isEnabled() {
+        return FrameworkConfig.get().getBoolean("timeline.enabled", false);
+    }
+
+    /**
+     * Start a span on the current thread's track; category groups spans (scenario, step, wait, browser, report)
+     */
+    public static Span begin(String category, String name) {
+        if (!isEnabled()) {
+            return NO_OP;
+        }
+        Thread thread = Thread.currentThread();
+        THREAD_NAMES.putIfAbsent(thread.threadId(), thread.getName());
+        return new Recorded(category, name, thread.threadId());
+    }
+
+    /**
+     * Write all spans closed so far to output.dir/timeline/run-timeline.json
+     * Runners call it when they finish; a later call rewrites the file with the spans of the whole JVM
+     */
+    public static void export() {
+        if (SPANS.isEmpty()) {
+            return;
+        }
+        Path file = Paths.get(FrameworkConfig.get().getProperty("output.dir", "test-output"), "timeline", "run-timeline.json");
+        List<Recorded> spans = new ArrayList<>(SPANS);
+        // Viewers nest spans of a thread by time; sorting makes parents come before their children
+        spans.sort(Comparator.comparingLong((Recorded span) -> span.startNanos).thenComparingLong(span -> -span.endNanos));
+        try {
+            Files.createDirectories(file.getParent());
+            try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+                 JsonWriter writer = GSON.newJsonWriter(out)) {
+                writer.beginObject();
+                writer.name("displayTimeUnit").value("ms");
+                writer.name("traceEvents").beginArray();
+                writeMetadata(writer, "process_name", 0, "Test JVM " + PID);
+                for (Map.Entry<Long, String> thread : new TreeMap<>(THREAD_NAMES).entrySet()) {
+                    writeMetadata(writer, "thread_name", thread.getKey(), thread.getValue());
+                }
+                for (Recorded span : spans) {
+                    writer.beginObject();
+                    writer.name("name").value(span.name);
+                    writer.name("cat").value(span.category);
+                    writer.name("ph").value("X");
+                    writer.name("ts").value((span.startNanos - ORIGIN_NANOS) / 1000.0);
+                    writer.name("dur").value((span.endNanos - span.startNanos) / 1000.0);
+                    writer.name("pid").value(PID);
+                    writer.name("tid").value(span.threadId);
+                    if (span.args != null) {
+                        writer.name("args");
+                        GSON.toJson(span.args, Map.class, writer);
+                    }
+                    writer.endObject();
+                }
+                writer.endArray();
+                writer.endObject();
+            }
+            System.out.println("Run timeline: " + spans.size() + " spans on " + THREAD_NAMES.size() + " threads written to " + file);
+        } catch (IOException e) {
+            System.err.println("Could not export run timeline: " + e.getMessage());
+        }
+    }
+
+    private static void writeMetadata(JsonWriter writer, String name, long threadId, String value) throws IOException {
+        writer.beginObject();
+        writer.name("name").value(name);
+        writer.name("ph").value("M");
+        writer.name("pid").value(PID);
+        writer.name("tid").value(threadId);
+        writer.name("args").beginObject().name("name").value(value).endObject();
+        writer.endObject();
+    }
+}
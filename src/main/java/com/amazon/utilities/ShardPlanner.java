@@ -0,0 +1,122 @@
+package com.amazon.utilities;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Deterministic, duration-balanced split of the suite across machines
+ * Every agent runs the same planner over the same items and duration history, so all agents
+ * compute the same assignment without talking to each other. Sharded runs don't update the history
+ * (see DurationHistory.shared), and the plan logs the history digest so agents that planned from
+ * different files can be spotted. Configure with -Dshard.index (0-based) and -Dshard.count.
+ */
+public class ShardPlanner {
+    private final int shardIndex;
+    private final int shardCount;
+    private final DurationHistory history;
+
+    public ShardPlanner(int shardIndex, int shardCount, DurationHistory history) {
+        if (shardCount < 1 || shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException("Invalid shard " + shardIndex + " of " + shardCount
+                    + "; shard.index must be between 0 and shard.count - 1");
+        }
+        this.shardIndex = shardIndex;
+        this.shardCount = shardCount;
+        this.history = history;
+    }
+
+    /**
+     * Create planner from shard.index and shard.count (defaults: single shard)
+     */
+    public static ShardPlanner fromConfig() {
+        FrameworkConfig config = FrameworkConfig.get();
+        return new ShardPlanner(config.getInt("shard.index", 0), config.getInt("shard.count", 1), DurationHistory.shared());
+    }
+
+    /**
+     * Check if the suite is split across more than one shard
+     */
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    /**
+     * Select the items assigned to this shard, longest first
+     * Items are sorted by duration then key and each goes to the currently lightest shard
+     * (lowest index on ties), which balances the shards by historical duration
+     */
+    public <T> List<T> select(List<T> items, Function<T, String> keyFunction, String description) {
+        if (!isSharded()) {
+            return items;
+        }
+        List<T> ordered = LptScheduler.order(items, keyFunction, item -> history.getDurationOrMean(keyFunction.apply(item)));
+        long[] shardLoads = new long[shardCount];
+        List<T> selected = new ArrayList<>();
+        for (T item : ordered) {
+            int lightest = 0;
+            for (int shard = 1; shard < shardCount; shard++) {
+                if (shardLoads[shard] < shardLoads[lightest]) {
+                    lightest = shard;
+                }
+            }
+            shardLoads[lightest] += history.getDurationOrMean(keyFunction.apply(item));
+            if (lightest == shardIndex) {
+                selected.add(item);
+            }
+        }
+        System.out.printf("Shard %d/%d: %d of %d %s, planned load %.1f s (heaviest shard %.1f s), duration history %s%n",
+                shardIndex + 1, shardCount, selected.size(), items.size(), description,
+                shardLoads[shardIndex] / 1000.0, Arrays.stream(shardLoads).max().orElse(0) / 1000.0, history.digest());
+        return selected;
+    }
+
+    /**
+     * Check if a streamed item belongs to this shard
+     * Used where items arrive one at a time and can't be balanced up front, e.g. data-driven records;
+     * String.hashCode is fixed by the language spec, so every JVM agrees
+     */
+    public boolean owns(String key) {
+        return !isSharded() || Math.floorMod(key.hashCode(), shardCount) == shardIndex;
+    }
+
+    /**
+     * Lazily drop streamed items that belong to other shards
+     */
+    public <T> Iterator<T> filter(Iterator<T> items, Function<T, String> keyFunction) {
+        if (!isSharded()) {
+            return items;
+        }
+        return new Iterator<T>() {
+            private T next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && items.hasNext()) {
+                    T candidate = items.next();
+                    if (owns(keyFunction.apply(candidate))) {
+                        next = candidate;
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                T item = next;
+                next = null;
+                return item;
+            }
+        };
+    }
+
+    public int getShardIndex() {
+        return shardIndex;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+}
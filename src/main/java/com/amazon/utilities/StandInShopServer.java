@@ -0,0 +1,295 @@
+package com.amazon.utilities;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded HTTP server standing in for the shop, for offline and reproducible runs
+ * Serves a home page, search results, product pages and an add-to-cart flow with the ids and
+ * texts the page objects locate (twotabsearchtextbox, h2 product links, productTitle,
+ * add-to-cart-button, "Added to Basket", nav-cart-count-container). With standInShop.enabled,
+ * BaseTest.getBaseURL points at it. Every response waits standInShop.latencyMs (plus up to
+ * standInShop.latencyJitterMs) and carries standInShop.payloadKb of hidden filler markup.
+ */
+public class StandInShopServer {
+    private static final String CART_COOKIE = "standin-cart";
+    private static volatile StandInShopServer shared;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long latencyMs;
+    private final long latencyJitterMs;
+    private final String filler;
+    private final int resultsPerPage;
+    private final AtomicLong requestCount = new AtomicLong();
+
+    private StandInShopServer(int port, long latencyMs, long latencyJitterMs, int payloadKb, int resultsPerPage) throws IOException {
+        this.latencyMs = latencyMs;
+        this.latencyJitterMs = latencyJitterMs;
+        this.filler = filler(payloadKb);
+        this.resultsPerPage = resultsPerPage;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stand-in-shop-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /**
+     * Get server shared by the whole JVM, starting it on first use
+     */
+    public static StandInShopServer shared() {
+        StandInShopServer instance = shared;
+        if (instance == null) {
+            synchronized (StandInShopServer.class) {
+                instance = shared;
+                if (instance == null) {
+                    FrameworkConfig config = FrameworkConfig.get();
+                    try {
+                        instance = new StandInShopServer(
+                                config.getInt("standInShop.port", 0),
+                                Math.max(0, config.getLong("standInShop.latencyMs", 0)),
+                                Math.max(0, config.getLong("standInShop.latencyJitterMs", 0)),
+                                Math.max(0, config.getInt("standInShop.payloadKb", 0)),
+                                Math.max(1, config.getInt("standInShop.resultsPerPage", 16)));
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Could not start stand-in shop server: " + e.getMessage(), e);
+                    }
+                    StandInShopServer started = instance;
+                    Runtime.getRuntime().addShutdownHook(new Thread(started::stop, "stand-in-shop-shutdown"));
+                    System.out.println("Stand-in shop serving at " + instance.getBaseUrl());
+                    shared = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Check if tests should run against the stand-in shop instead of baseURL
+     */
+    public static boolean isEnabled() {
+        return FrameworkConfig.get().getBoolean("standInShop.enabled", false);
+    }
+
+    /**
+     * URL of the home page, e.g. http://127.0.0.1:41234/
+     */
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getAddress().getHostAddress() + ":" + server.getAddress().getPort() + "/";
+    }
+
+    /**
+     * Number of requests served so far
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Stop accepting requests
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        try {
+            simulateLatency();
+            URI uri = exchange.getRequestURI();
+            Map<String, String> query = parseQuery(uri.getRawQuery());
+            int cartCount = cartCount(exchange);
+            String path = uri.getPath();
+
+            if (path.equals("/") || path.equals("/index.html")) {
+                respond(exchange, 200, homePage(cartCount));
+            } else if (path.equals("/s")) {
+                respond(exchange, 200, searchResultsPage(query.getOrDefault("k", ""), cartCount));
+            } else if (path.startsWith("/dp/")) {
+                respond(exchange, 200, productPage(path.substring("/dp/".length()), cartCount, false));
+            } else if (path.equals("/cart/add")) {
+                int quantity = parseQuantity(query.get("quantity"));
+                String asin = query.getOrDefault("asin", "B000000001");
+                exchange.getResponseHeaders().add("Set-Cookie", CART_COOKIE + "=" + (cartCount + quantity) + "; Path=/");
+                respond(exchange, 200, productPage(asin, cartCount + quantity, true));
+            } else if (path.equals("/favicon.ico")) {
+                exchange.sendResponseHeaders(204, -1);
+            } else {
+                respond(exchange, 404, page("Amazon.com Page Not Found", cartCount, "<h1>Page not found</h1>"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void simulateLatency() throws InterruptedException {
+        long delay = latencyMs + (latencyJitterMs > 0 ? ThreadLocalRandom.current().nextLong(latencyJitterMs + 1) : 0);
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+    }
+
+    private String homePage(int cartCount) {
+        return page("Amazon.com. Spend less. Smile more.", cartCount,
+                "<h1>Stand-in shop</h1><p>Offline fixture pages for framework benchmarks.</p>");
+    }
+
+    private String searchResultsPage(String keyword, int cartCount) {
+        StringBuilder results = new StringBuilder("<div class=\"s-main-slot\">");
+        for (int index = 1; index <= resultsPerPage; index++) {
+            String asin = asin(keyword, index);
+            results.append("<div data-component-type=\"s-search-result\" data-asin=\"").append(asin).append("\">")
+                    .append("<h2><a href=\"/dp/").append(asin).append("\">")
+                    .append("<span class=\"a-size-medium a-color-base a-text-normal\">")
+                    .append(escape(productTitle(keyword, index))).append("</span></a></h2>")
+                    .append("<span class=\"a-price\">").append(price(asin)).append("</span>")
+                    .append("<a href=\"/cart/add?asin=").append(asin).append("&amp;quantity=1\"><span>Add to basket</span></a>")
+                    .append("</div>");
+        }
+        results.append("</div>");
+        return page("Amazon.com : " + keyword, cartCount, results.toString());
+    }
+
+    private String productPage(String asin, int cartCount, boolean added) {
+        String body = "<span id=\"productTitle\">" + escape(productTitle(asin, 0)) + "</span>"
+                + "<span id=\"a-autoid-0-announce\">" + price(asin) + "</span>"
+                + "<form action=\"/cart/add\" method=\"get\">"
+                + "<input type=\"hidden\" name=\"asin\" value=\"" + escape(asin) + "\">"
+                + "<input id=\"quantity\" name=\"quantity\" type=\"text\" value=\"1\">"
+                + "<input id=\"add-to-cart-button\" type=\"submit\" value=\"Add to Basket\">"
+                + "<input id=\"buy-now-button\" type=\"button\" value=\"Buy Now\">"
+                + "</form>"
+                + (added ? "<div id=\"attach-added-to-cart-message\"><span>Added to Basket</span></div>" : "");
+        return page("Amazon.com : " + productTitle(asin, 0), cartCount, body);
+    }
+
+    private String page(String title, int cartCount, String body) {
+        return "<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>" + escape(title) + "</title></head><body>"
+                + "<header><form action=\"/s\" method=\"get\">"
+                + "<input id=\"twotabsearchtextbox\" name=\"k\" type=\"text\">"
+                + "<input id=\"nav-search-submit-button\" type=\"submit\" value=\"Go\">"
+                + "</form>"
+                + "<a id=\"nav-link-accountList\" href=\"/\">Hello, sign in</a>"
+                + "<a id=\"nav-cart-count-container\" href=\"/\"><span id=\"nav-cart-count\">" + cartCount + "</span></a>"
+                + "</header><main>" + body + "</main>"
+                + filler
+                + "</body></html>";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String html) throws IOException {
+        byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+        exchange.getResponseHeaders().add("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(bytes);
+        }
+    }
+
+    /**
+     * Hidden markup of the requested size, so page weight can be varied without changing layout
+     */
+    private static String filler(int payloadKb) {
+        if (payloadKb == 0) {
+            return "";
+        }
+        StringBuilder markup = new StringBuilder("<div id=\"stand-in-filler\" style=\"display:none\">");
+        int row = 0;
+        while (markup.length() < payloadKb * 1024) {
+            markup.append("<p>Filler row ").append(row++).append(" lorem ipsum dolor sit amet</p>");
+        }
+        return markup.append("</div>").toString();
+    }
+
+    private static int cartCount(HttpExchange exchange) {
+        for (String header : exchange.getRequestHeaders().getOrDefault("Cookie", List.of())) {
+            for (String cookie : header.split(";")) {
+                String[] pair = cookie.trim().split("=", 2);
+                if (pair.length == 2 && pair[0].equals(CART_COOKIE)) {
+                    try {
+                        return Math.max(0, Integer.parseInt(pair[1].trim()));
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static int parseQuantity(String value) {
+        try {
+            return value == null ? 1 : Math.max(0, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery != null) {
+            for (String parameter : rawQuery.split("&")) {
+                String[] pair = parameter.split("=", 2);
+                query.put(URLDecoder.decode(pair[0], StandardCharsets.UTF_8),
+                        pair.length > 1 ? URLDecoder.decode(pair[1], StandardCharsets.UTF_8) : "");
+            }
+        }
+        return query;
+    }
+
+    /**
+     * Stable product id derived from the search keyword and result position
+     */
+    private static String asin(String keyword, int index) {
+        return String.format("B%09d", Math.floorMod((keyword.toLowerCase() + "#" + index).hashCode(), 1_000_000_000));
+    }
+
+    private static String productTitle(String keywordOrAsin, int index) {
+        String name = keywordOrAsin.isEmpty() ? "Product" : keywordOrAsin;
+        return index > 0 ? "Stand-in " + name + " model " + index : "Stand-in product " + name;
+    }
+
+    private static String price(String asin) {
+        int cents = Math.floorMod(asin.hashCode(), 100_000) + 499;
+        return "$" + (cents / 100) + "." + String.format("%02d", cents % 100);
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    /**
+     * Run the server on its own, e.g. to point a browser or another JVM at it
+     */
+    public static void main(String[] args) throws InterruptedException {
+        StandInShopServer server = shared();
+        System.out.println("Search example: " + server.getBaseUrl() + "s?k=" + URLEncoder.encode("laptop", StandardCharsets.UTF_8));
+        Thread.currentThread().join();
+    }
+}
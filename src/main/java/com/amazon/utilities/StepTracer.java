@@ -0,0 +1,254 @@
+package com.amazon.utilities;
+
+import com.google.gson.Gson;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonInput;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Browser performance traces (CPU samples, layout, paint, scripting) of slow steps
+ * With trace.enabled the browser traces every step through the DevTools Tracing domain; a trace is
+ * written only when the step took longer than trace.stepThresholdMs, and only the trace.maxFiles
+ * slowest steps of the run are kept. Whether a step is slow is only known when it ends, so every traced
+ * step holds its events in memory until then, at most trace.maxEventsPerStep of them (later ones are
+ * dropped and the trace marked truncated). Traces are Chrome trace-event JSON under output.dir/traces,
+ * opened with the Performance panel of Chrome DevTools or ui.perfetto.dev. Needs Chrome or Edge.
+ */
+public class StepTracer {
+    private static final String DEFAULT_CATEGORIES = "devtools.timeline,disabled-by-default-devtools.timeline,"
+            + "disabled-by-default-devtools.timeline.frame,disabled-by-default-v8.cpu_profiler,v8.execute,"
+            + "blink.user_timing,loading,latencyInfo";
+    private static final Gson GSON = new Gson();
+    private static final ThreadLocal<Trace> CURRENT = new ThreadLocal<>();
+    // Trace each browser is sending events to; its listeners are added once, on the first traced step
+    private static final Map<DevTools, AtomicReference<Trace>> RECEIVERS = Collections.synchronizedMap(new WeakHashMap<>());
+    // Kept traces of this run, fastest first, so the fastest is dropped when a slower one comes in
+    private static final PriorityQueue<KeptTrace> KEPT = new PriorityQueue<>(Comparator.comparingLong(kept -> kept.durationMillis));
+    // Numbers trace files, so two steps with the same name and duration never share a file
+    private static final AtomicInteger FILE_SEQUENCE = new AtomicInteger();
+    private static volatile boolean warnedNoDevTools;
+
+    /**
+     * One step being traced and the events received for it so far
+     */
+    private static class Trace {
+        private final DevTools devTools;
+        private final long startNanos = System.nanoTime();
+        private final List<Map<String, Object>> events = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch complete = new CountDownLatch(1);
+        private final int maxEvents;
+        private volatile boolean discard;
+        private volatile boolean truncated;
+
+        Trace(DevTools devTools, int maxEvents) {
+            this.devTools = devTools;
+            this.maxEvents = maxEvents;
+        }
+
+        /**
+         * Buffer events up to maxEvents; the rest are dropped
+         */
+        void add(List<Map<String, Object>> received) {
+            synchronized (events) {
+                int room = maxEvents - events.size();
+                if (room < received.size()) {
+                    truncated = true;
+                }
+                if (room > 0) {
+                    events.addAll(room < received.size() ? received.subList(0, room) : received);
+                }
+            }
+        }
+    }
+
+    private static class KeptTrace {
+        private final long durationMillis;
+        private final Path file;
+
+        KeptTrace(long durationMillis, Path file) {
+            this.durationMillis = durationMillis;
+            this.file = file;
+        }
+    }
+
+    private StepTracer() {
+    }
+
+    public static boolean isEnabled() {
+        return FrameworkConfig.get().getBoolean("trace.enabled", false);
+    }
+
+    /**
+     * Start tracing the current thread's step in the given browser; does nothing unless trace.enabled
+     */
+    public static void startStep(WebDriver driver) {
+        CURRENT.remove();
+        if (driver == null || !isEnabled()) {
+            return;
+        }
+        if (!(driver instanceof HasDevTools)) {
+            if (!warnedNoDevTools) {
+                warnedNoDevTools = true;
+                System.err.println("trace.enabled needs a DevTools browser (chrome or edge); steps are not traced in "
+                        + driver.getClass().getSimpleName());
+            }
+            return;
+        }
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            Trace trace = new Trace(devTools, Math.max(1, FrameworkConfig.get().getInt("trace.maxEventsPerStep", 200000)));
+            receiver(devTools).set(trace);
+            Map<String, Object> traceConfig = new LinkedHashMap<>();
+            traceConfig.put("recordMode", "recordAsMuchAsPossible");
+            traceConfig.put("includedCategories", Arrays.asList(
+                    FrameworkConfig.get().getProperty("trace.categories", DEFAULT_CATEGORIES).split("\\s*,\\s*")));
+            devTools.send(new Command<Void>("Tracing.start", Map.of("traceConfig", traceConfig, "transferMode", "ReportEvents")));
+            CURRENT.set(trace);
+        } catch (RuntimeException e) {
+            System.err.println("Could not start step trace: " + String.valueOf(e.getMessage()).split("\n")[0]);
+        }
+    }
+
+    /**
+     * Trace receiving the browser's tracing events; other DevTools listeners (e.g. TrafficRecorder) are left alone
+     */
+    private static AtomicReference<Trace> receiver(DevTools devTools) {
+        synchronized (RECEIVERS) {
+            AtomicReference<Trace> receiver = RECEIVERS.get(devTools);
+            if (receiver == null) {
+                AtomicReference<Trace> newReceiver = new AtomicReference<>();
+                devTools.addListener(new Event<>("Tracing.dataCollected", StepTracer::readEvents), events -> {
+                    Trace trace = newReceiver.get();
+                    if (trace != null && !trace.discard) {
+                        trace.add(events);
+                    }
+                });
+                devTools.addListener(new Event<>("Tracing.tracingComplete", input -> {
+                    input.skipValue();
+                    return Boolean.TRUE;
+                }), done -> {
+                    Trace trace = newReceiver.get();
+                    if (trace != null) {
+                        trace.complete.countDown();
+                    }
+                });
+                RECEIVERS.put(devTools, newReceiver);
+                receiver = newReceiver;
+            }
+            return receiver;
+        }
+    }
+
+    private static List<Map<String, Object>> readEvents(JsonInput input) {
+        List<Map<String, Object>> events = new ArrayList<>();
+        input.beginObject();
+        while (input.hasNext()) {
+            if ("value".equals(input.nextName())) {
+                events = input.read(Json.LIST_OF_MAPS_TYPE);
+            } else {
+                input.skipValue();
+            }
+        }
+        input.endObject();
+        return events;
+    }
+
+    /**
+     * Stop tracing the current thread's step and keep the trace if the step was slow
+     * Returns the trace file, or null if the step wasn't traced or was fast enough to discard
+     */
+    public static Path endStep(String stepName) {
+        Trace trace = CURRENT.get();
+        CURRENT.remove();
+        if (trace == null) {
+            return null;
+        }
+        long durationMillis = (System.nanoTime() - trace.startNanos) / 1_000_000;
+        FrameworkConfig config = FrameworkConfig.get();
+        boolean slow = durationMillis >= config.getLong("trace.stepThresholdMs", 5000);
+        // A fast step's remaining events are dropped as the browser flushes them; those buffered go with the trace
+        trace.discard = !slow;
+        try {
+            // Tracing.end flushes buffered events as dataCollected, then signals tracingComplete; the next
+            // step can only start tracing once that arrived
+            trace.devTools.send(new Command<Void>("Tracing.end", Map.of()));
+            if (!trace.complete.await(config.getLong("trace.collectTimeoutSec", 15), TimeUnit.SECONDS)) {
+                System.err.println("Trace of step '" + stepName + "' incomplete: browser didn't finish sending it");
+            }
+            if (slow && trace.truncated) {
+                System.err.println("Trace of step '" + stepName + "' truncated at trace.maxEventsPerStep=" + trace.maxEvents);
+            }
+            return slow ? keep(stepName, durationMillis, new ArrayList<>(trace.events)) : null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (RuntimeException | IOException e) {
+            System.err.println("Could not save trace of step '" + stepName + "': " + String.valueOf(e.getMessage()).split("\n")[0]);
+            return null;
+        }
+    }
+
+    /**
+     * Write the trace if it is among the trace.maxFiles slowest of the run, deleting the fastest kept one if needed
+     * The slot is reserved under one lock, so parallel steps can't both take the last one
+     */
+    private static Path keep(String stepName, long durationMillis, List<Map<String, Object>> events) throws IOException {
+        int maxFiles = Math.max(1, FrameworkConfig.get().getInt("trace.maxFiles", 10));
+        Path directory = Paths.get(FrameworkConfig.get().getProperty("output.dir", "test-output"), "traces");
+        String name = stepName.replaceAll("[^A-Za-z0-9._-]+", "_");
+        KeptTrace kept;
+        KeptTrace dropped = null;
+        synchronized (KEPT) {
+            if (KEPT.size() >= maxFiles) {
+                if (KEPT.peek().durationMillis >= durationMillis) {
+                    return null;
+                }
+                dropped = KEPT.poll();
+            }
+            kept = new KeptTrace(durationMillis, directory.resolve(name.substring(0, Math.min(name.length(), 120))
+                    + "_" + durationMillis + "ms_" + FILE_SEQUENCE.incrementAndGet() + ".json"));
+            KEPT.add(kept);
+        }
+        if (dropped != null) {
+            Files.deleteIfExists(dropped.file);
+        }
+
+        try {
+            Files.createDirectories(directory);
+            try (Writer writer = Files.newBufferedWriter(kept.file, StandardCharsets.UTF_8)) {
+                GSON.toJson(Map.of("traceEvents", events), writer);
+            }
+        } catch (IOException | RuntimeException e) {
+            synchronized (KEPT) {
+                KEPT.remove(kept);
+            }
+            Files.deleteIfExists(kept.file);
+            throw e;
+        }
+        synchronized (KEPT) {
+            if (KEPT.contains(kept)) {
+                return kept.file;
+            }
+        }
+        // A slower step evicted this one while it was being written
+        Files.deleteIfExists(kept.file);
+        return null;
+    }
+}
@@ -0,0 +1,255 @@
+package com.amazon.utilities;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Watchdog enforcing per-step and per-scenario deadlines on worker threads
+ * When a deadline passes it writes a thread dump and a last-frame screenshot, force-kills the
+ * worker's driver process and its browser, and interrupts the worker. A worker blocked in a driver
+ * call then fails with a connection error instead of hanging, and is free for the next test.
+ * Deadlines come from watchdog.stepTimeoutSec and watchdog.scenarioTimeoutSec (0 disables).
+ */
+public class StepWatchdog {
+    private static final long SCAN_INTERVAL_MS = 1000;
+    private static final long SCREENSHOT_TIMEOUT_MS = 5000;
+    private static final Map<Thread, Watch> WATCHES = new ConcurrentHashMap<>();
+    private static ScheduledExecutorService scanner;
+    private static ExecutorService responder;
+
+    /**
+     * Watch states: the worker and the watchdog race to move a watch out of RUNNING, so a watch that
+     * finished can't be fired and a firing watch is only left once its worker was interrupted
+     */
+    private enum State {
+        RUNNING, FIRING, FINISHED
+    }
+
+    /**
+     * Deadline state of one worker thread
+     */
+    private static class Watch {
+        private final Thread worker;
+        private final String scenarioName;
+        private final long scenarioDeadline;
+        private final WebDriver driver;
+        private final int driverPort;
+        private volatile String stepName;
+        private volatile long stepDeadline = Long.MAX_VALUE;
+        private volatile String timeoutReason;
+        private final AtomicReference<State> state = new AtomicReference<>(State.RUNNING);
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        Watch(Thread worker, String scenarioName, long scenarioDeadline, WebDriver driver, int driverPort) {
+            this.worker = worker;
+            this.scenarioName = scenarioName;
+            this.scenarioDeadline = scenarioDeadline;
+            this.driver = driver;
+            this.driverPort = driverPort;
+        }
+    }
+
+    /**
+     * Raised on the worker thread when its step or scenario ran past the deadline
+     */
+    public static class StepTimeoutException extends RuntimeException {
+        public StepTimeoutException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Start watching the scenario (or TestNG test) running on the current thread
+     * driverPort is the port of the driver service to kill on timeout, or -1 if unknown
+     */
+    public static void startScenario(String scenarioName, WebDriver driver, int driverPort) {
+        long timeoutSeconds = FrameworkConfig.get().getLong("watchdog.scenarioTimeoutSec", 600);
+        long deadline = timeoutSeconds > 0 ? System.currentTimeMillis() + timeoutSeconds * 1000 : Long.MAX_VALUE;
+        WATCHES.put(Thread.currentThread(), new Watch(Thread.currentThread(), scenarioName, deadline, driver, driverPort));
+        ensureStarted();
+    }
+
+    /**
+     * Start the step deadline of the current thread's scenario
+     */
+    public static void startStep(String stepName) {
+        Watch watch = WATCHES.get(Thread.currentThread());
+        long timeoutSeconds = FrameworkConfig.get().getLong("watchdog.stepTimeoutSec", 120);
+        if (watch != null && timeoutSeconds > 0) {
+            watch.stepName = stepName;
+            watch.stepDeadline = System.currentTimeMillis() + timeoutSeconds * 1000;
+        }
+    }
+
+    /**
+     * End the current step; throws StepTimeoutException if the watchdog fired during it
+     */
+    public static void endStep() {
+        Watch watch = WATCHES.get(Thread.currentThread());
+        if (watch != null) {
+            watch.stepDeadline = Long.MAX_VALUE;
+            if (watch.state.get() != State.RUNNING) {
+                awaitRelease(watch);
+                throw new StepTimeoutException(watch.timeoutReason);
+            }
+        }
+    }
+
+    /**
+     * Stop watching the current thread; returns the timeout reason if the watchdog fired, else null
+     */
+    public static String endScenario() {
+        Watch watch = WATCHES.remove(Thread.currentThread());
+        if (watch == null || watch.state.compareAndSet(State.RUNNING, State.FINISHED)) {
+            // Finished before the watchdog fired; it can't interrupt this worker any more
+            return null;
+        }
+        awaitRelease(watch);
+        return watch.timeoutReason;
+    }
+
+    /**
+     * Wait until the watchdog firing on this worker has interrupted it, then clear the interrupt
+     * so it doesn't leak into the next test on this worker
+     */
+    private static void awaitRelease(Watch watch) {
+        while (true) {
+            try {
+                watch.released.await();
+                break;
+            } catch (InterruptedException e) {
+                // The watchdog's interrupt arriving; wait for it to finish
+            }
+        }
+        Thread.interrupted();
+    }
+
+    private static synchronized void ensureStarted() {
+        if (scanner != null) {
+            return;
+        }
+        scanner = Executors.newSingleThreadScheduledExecutor(daemonThreads("step-watchdog"));
+        responder = Executors.newCachedThreadPool(daemonThreads("step-watchdog-responder"));
+        scanner.scheduleWithFixedDelay(StepWatchdog::scan, SCAN_INTERVAL_MS, SCAN_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static void scan() {
+        long now = System.currentTimeMillis();
+        for (Watch watch : WATCHES.values()) {
+            if (watch.state.get() != State.RUNNING) {
+                continue;
+            }
+            String reason = null;
+            if (now > watch.stepDeadline) {
+                reason = "Step '" + watch.stepName + "' exceeded watchdog.stepTimeoutSec";
+            } else if (now > watch.scenarioDeadline) {
+                reason = "Scenario '" + watch.scenarioName + "' exceeded watchdog.scenarioTimeoutSec";
+            }
+            if (reason != null && watch.state.compareAndSet(State.RUNNING, State.FIRING)) {
+                watch.timeoutReason = reason;
+                responder.submit(() -> fire(watch));
+            }
+        }
+    }
+
+    /**
+     * Capture diagnostics, kill the session and free the worker
+     * Only called for a watch the scanner moved to FIRING, so the worker is still in its scenario
+     */
+    private static void fire(Watch watch) {
+        try {
+            killAndReport(watch);
+        } finally {
+            // The reason is complete before the worker is released to read it
+            watch.worker.interrupt();
+            watch.state.set(State.FINISHED);
+            watch.released.countDown();
+        }
+    }
+
+    private static void killAndReport(Watch watch) {
+        String baseName = watch.scenarioName.replaceAll("[^A-Za-z0-9._-]", "_") + "_"
+                + new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+        Path directory = Paths.get(FrameworkConfig.get().getProperty("output.dir", "test-output"), "watchdog");
+        System.err.println("Watchdog: " + watch.timeoutReason + " on thread " + watch.worker.getName()
+                + "; killing its browser session");
+
+        List<String> artifacts = new ArrayList<>();
+        try {
+            Files.createDirectories(directory);
+            Path threadDump = directory.resolve(baseName + "_threads.txt");
+            Files.write(threadDump, threadDump(watch.worker).getBytes(StandardCharsets.UTF_8));
+            artifacts.add(threadDump.toString());
+
+            byte[] screenshot = lastFrame(watch.driver);
+            if (screenshot != null) {
+                Path screenshotFile = directory.resolve(baseName + ".png");
+                Files.write(screenshotFile, screenshot);
+                artifacts.add(screenshotFile.toString());
+            }
+        } catch (IOException e) {
+            System.err.println("Watchdog could not write diagnostics: " + e.getMessage());
+        }
+
+        int killed = BrowserReaper.killDriverProcesses(watch.driverPort);
+        watch.timeoutReason = watch.timeoutReason + " (killed " + killed + " driver/browser processes"
+                + (artifacts.isEmpty() ? "" : "; see " + String.join(", ", artifacts)) + ")";
+    }
+
+    /**
+     * Full stacks of all threads, the hung worker first
+     */
+    static String threadDump(Thread worker) {
+        StringBuilder dump = new StringBuilder();
+        Map<Thread, StackTraceElement[]> stacks = new LinkedHashMap<>();
+        stacks.put(worker, worker.getStackTrace());
+        stacks.putAll(Thread.getAllStackTraces());
+        for (Map.Entry<Thread, StackTraceElement[]> entry : stacks.entrySet()) {
+            Thread thread = entry.getKey();
+            dump.append('"').append(thread.getName()).append("\" ").append(thread.getState())
+                    .append(thread == worker ? " (timed out)" : "").append('\n');
+            for (StackTraceElement frame : entry.getValue()) {
+                dump.append("    at ").append(frame).append('\n');
+            }
+            dump.append('\n');
+        }
+        return dump.toString();
+    }
+
+    /**
+     * Try a screenshot on a separate thread; a hung driver usually can't answer, so give up after a few seconds
+     */
+    private static byte[] lastFrame(WebDriver driver) {
+        if (!(driver instanceof TakesScreenshot)) {
+            return null;
+        }
+        Future<byte[]> screenshot = responder.submit(() -> ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES));
+        try {
+            return screenshot.get(SCREENSHOT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            screenshot.cancel(true);
+            System.err.println("Watchdog could not take last-frame screenshot: " + e.getClass().getSimpleName());
+        }
+        return null;
+    }
+}
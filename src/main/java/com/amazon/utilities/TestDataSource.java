@@ -0,0 +1,73 @@
+package com.amazon.utilities;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Common view over tabular test data, independent of the source format
+ * Records are indexed by a key field, e.g. productName in testdata.json
+ */
+public interface TestDataSource {
+
+    /**
+     * Open JSON (.json), Excel (.xlsx/.xls, first sheet) or delimited text (.csv/.tsv) test data
+     */
+    static TestDataSource open(String filePath, String keyField) throws IOException {
+        return CachedTestDataSource.open(filePath, null, keyField);
+    }
+
+    /**
+     * Open a specific sheet of an Excel workbook
+     */
+    static TestDataSource open(String filePath, String sheetName, String keyField) throws IOException {
+        return CachedTestDataSource.open(filePath, sheetName, keyField);
+    }
+
+    /**
+     * Stream records straight from a JSON array or .xlsx sheet (first sheet if sheetName is null) without
+     * building the whole document in memory; .xls sheets are read whole
+     */
+    static Iterator<Map<String, String>> iterate(String filePath, String sheetName) throws IOException {
+        String fileName = filePath.toLowerCase();
+        if (fileName.endsWith(".json")) {
+            return JsonUtility.streamArray(filePath);
+        }
+        if (fileName.endsWith(".xlsx") || fileName.endsWith(".xls")) {
+            return new ExcelUtility(filePath).iterateSheetData(sheetName);
+        }
+        return open(filePath, null, "").getRecords().iterator();
+    }
+
+    /**
+     * Get all records in source order
+     */
+    List<Map<String, String>> getRecords();
+
+    /**
+     * Get record by key, or null if no record has that key
+     */
+    Map<String, String> getRecord(String key);
+
+    /**
+     * Get single field of record by key, or null if either is missing
+     */
+    String getValue(String key, String field);
+
+    /**
+     * Get all keys in source order
+     */
+    Set<String> getKeys();
+
+    /**
+     * Get name of the field records are indexed by
+     */
+    String getKeyField();
+
+    /**
+     * Get number of records
+     */
+    int size();
+}
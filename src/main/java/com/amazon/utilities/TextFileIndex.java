@@ -0,0 +1,160 @@
+package com.amazon.utilities;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Line-offset index over a memory-mapped text file
+ * Built once per file and cached until the file size or modification time changes,
+ * so random line access only scans a bounded window instead of the whole file
+ */
+public class TextFileIndex {
+    private static final int CHECKPOINT_INTERVAL = 64;
+    private static final long MAP_SEGMENT_SIZE = 256L * 1024 * 1024;
+    private static final long READ_WINDOW_SIZE = 64L * 1024;
+    private static final Map<Path, TextFileIndex> CACHE = new ConcurrentHashMap<>();
+
+    private final Path path;
+    private final long size;
+    private final long lastModified;
+    private final long[] checkpoints;
+    private final long lineCount;
+
+    private TextFileIndex(Path path, long size, long lastModified, long[] checkpoints, long lineCount) {
+        this.path = path;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.checkpoints = checkpoints;
+        this.lineCount = lineCount;
+    }
+
+    /**
+     * Get cached index for file, rebuilding it if the file changed since it was built
+     */
+    public static TextFileIndex of(String filePath) throws IOException {
+        Path path = Paths.get(filePath).toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        try {
+            return CACHE.compute(path, (key, existing) -> {
+                if (existing != null && existing.size == size && existing.lastModified == lastModified) {
+                    return existing;
+                }
+                try {
+                    return build(key, lastModified);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Drop cached index for file
+     */
+    public static void invalidate(String filePath) {
+        CACHE.remove(Paths.get(filePath).toAbsolutePath().normalize());
+    }
+
+    /**
+     * Drop all cached indexes
+     */
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    /**
+     * Scan file once and record the byte offset of every CHECKPOINT_INTERVAL-th line
+     */
+    private static TextFileIndex build(Path path, long lastModified) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long[] checkpoints = new long[16];
+            int checkpointCount = 1;
+            long newlines = 0;
+            byte lastByte = '\n';
+
+            for (long segmentStart = 0; segmentStart < size; segmentStart += MAP_SEGMENT_SIZE) {
+                int length = (int) Math.min(MAP_SEGMENT_SIZE, size - segmentStart);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, segmentStart, length);
+                for (int i = 0; i < length; i++) {
+                    if (buffer.get(i) == '\n') {
+                        newlines++;
+                        long nextLineStart = segmentStart + i + 1;
+                        if (newlines % CHECKPOINT_INTERVAL == 0 && nextLineStart < size) {
+                            if (checkpointCount == checkpoints.length) {
+                                checkpoints = Arrays.copyOf(checkpoints, checkpointCount * 2);
+                            }
+                            checkpoints[checkpointCount++] = nextLineStart;
+                        }
+                    }
+                }
+                lastByte = buffer.get(length - 1);
+            }
+
+            long lineCount = newlines + (size > 0 && lastByte != '\n' ? 1 : 0);
+            return new TextFileIndex(path, size, lastModified, Arrays.copyOf(checkpoints, checkpointCount), lineCount);
+        }
+    }
+
+    /**
+     * Get number of lines in indexed file
+     */
+    public long getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Read single line (1-based), or null if line number is out of range
+     */
+    public String readLine(long lineNumber) throws IOException {
+        if (lineNumber < 1 || lineNumber > lineCount) {
+            return null;
+        }
+        long lineIndex = lineNumber - 1;
+        long offset = checkpoints[(int) (lineIndex / CHECKPOINT_INTERVAL)];
+        int linesToSkip = (int) (lineIndex % CHECKPOINT_INTERVAL);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int skipped = 0;
+            for (long position = offset; position < size; position += READ_WINDOW_SIZE) {
+                int length = (int) Math.min(READ_WINDOW_SIZE, size - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                for (int i = 0; i < length; i++) {
+                    byte b = buffer.get(i);
+                    if (skipped < linesToSkip) {
+                        if (b == '\n') {
+                            skipped++;
+                        }
+                    } else if (b == '\n') {
+                        return decode(line);
+                    } else {
+                        line.write(b);
+                    }
+                }
+            }
+            return decode(line);
+        }
+    }
+
+    /**
+     * Decode line bytes as UTF-8, dropping a trailing carriage return
+     */
+    private static String decode(ByteArrayOutputStream line) {
+        String text = line.toString(StandardCharsets.UTF_8);
+        return text.endsWith("\r") ? text.substring(0, text.length() - 1) : text;
+    }
+}
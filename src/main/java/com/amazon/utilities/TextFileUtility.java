@@ -18,13 +18,10 @@ public class TextFileUtility {
 
     /**
      * Read single line from text file
+     * Uses the cached line-offset index, so only a bounded window of the file is read
      */
     public static String readLine(String filePath, int lineNumber) throws IOException {
-        List<String> lines = readTextFile(filePath);
-        if (lineNumber > 0 && lineNumber <= lines.size()) {
-            return lines.get(lineNumber - 1);
-        }
-        return null;
+        return TextFileIndex.of(filePath).readLine(lineNumber);
     }
 
     /**
@@ -35,6 +32,7 @@ public class TextFileUtility {
         fileWriter.write(content);
         fileWriter.write(System.lineSeparator());
         fileWriter.close();
+        TextFileIndex.invalidate(filePath);
     }
 
     /**
@@ -43,21 +41,41 @@ public class TextFileUtility {
     public static void writeLines(String filePath, List<String> lines, boolean append) throws IOException {
         Files.write(Paths.get(filePath), lines, StandardOpenOption.CREATE,
                 append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+        TextFileIndex.invalidate(filePath);
     }
 
     /**
      * Search for text in file
+     * Streams the file line by line and stops at the first match
      */
     public static boolean searchInFile(String filePath, String searchText) throws IOException {
-        List<String> lines = readTextFile(filePath);
-        return lines.stream().anyMatch(line -> line.contains(searchText));
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(filePath))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.contains(searchText)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Count occurrences of several literal signatures in one parallel pass over the file
+     */
+    public static LogScanner.ScanResult scanForSignatures(String filePath, String... signatures) throws IOException {
+        LogScanner.Signature[] literals = new LogScanner.Signature[signatures.length];
+        for (int i = 0; i < signatures.length; i++) {
+            literals[i] = LogScanner.Signature.literal(signatures[i]);
+        }
+        return new LogScanner(literals).scan(filePath);
     }
 
     /**
      * Get line count
      */
     public static int getLineCount(String filePath) throws IOException {
-        return (int) Files.lines(Paths.get(filePath)).count();
+        return Math.toIntExact(TextFileIndex.of(filePath).getLineCount());
     }
 
     /**
@@ -72,6 +90,7 @@ public class TextFileUtility {
      */
     public static void clearFile(String filePath) throws IOException {
         Files.write(Paths.get(filePath), new byte[0]);
+        TextFileIndex.invalidate(filePath);
     }
 
     /**
@@ -85,6 +104,7 @@ public class TextFileUtility {
      * Delete file
      */
     public static boolean deleteFile(String filePath) throws IOException {
+        TextFileIndex.invalidate(filePath);
         return Files.deleteIfExists(Paths.get(filePath));
     }
 }
@@ -0,0 +1,202 @@
+package com.amazon.utilities;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * On-disk archive of HTTP responses keyed by method, URL and, except for GET and HEAD, request body
+ * A directory with index.json (one entry per request: status, headers, body offset and length) and
+ * bodies.bin (all bodies back to back). Identical bodies, such as shared scripts and images, are stored
+ * once. Index lookups are in memory; bodies are read from disk on demand.
+ * Query parameters that change on every visit (tracking ids and the like) can be left out of the key.
+ */
+public class TrafficArchive {
+    private static final String INDEX_FILE = "index.json";
+    private static final String BODIES_FILE = "bodies.bin";
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+    private final Path directory;
+    private final Set<String> ignoredParams;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, long[]> bodiesByDigest = new HashMap<>();
+    private RandomAccessFile bodies;
+    private boolean dirty;
+
+    /**
+     * Recorded response; headers keep their recorded order
+     */
+    public static class Entry {
+        public String method;
+        public String url;
+        public int status;
+        public List<String[]> headers = new ArrayList<>();
+        public long bodyOffset;
+        public int bodyLength;
+        public String bodyDigest;
+        /** SHA-256 of the request body; null for GET and HEAD */
+        public String requestDigest;
+    }
+
+    private TrafficArchive(Path directory, Collection<String> ignoredParams) {
+        this.directory = directory;
+        this.ignoredParams = Set.copyOf(ignoredParams);
+    }
+
+    /**
+     * Open an archive directory, loading its index if there is one
+     * ignoredParams are query parameter names left out of lookups, e.g. crid or qid
+     */
+    public static TrafficArchive open(String directory, Collection<String> ignoredParams) throws IOException {
+        TrafficArchive archive = new TrafficArchive(Paths.get(directory), ignoredParams);
+        Path index = archive.directory.resolve(INDEX_FILE);
+        if (Files.exists(index)) {
+            try (Reader reader = Files.newBufferedReader(index, StandardCharsets.UTF_8)) {
+                List<Entry> loaded = GSON.fromJson(reader, new TypeToken<List<Entry>>() { }.getType());
+                for (Entry entry : loaded) {
+                    archive.entries.put(archive.key(entry.method, entry.url, entry.requestDigest), entry);
+                    archive.bodiesByDigest.put(entry.bodyDigest, new long[]{entry.bodyOffset, entry.bodyLength});
+                }
+            }
+        }
+        return archive;
+    }
+
+    /**
+     * Key used for lookups: upper-case method, URL without fragment and ignored query parameters,
+     * and the request body digest for methods other than GET and HEAD
+     */
+    public String key(String method, String url, byte[] requestBody) {
+        return key(method, url, requestDigest(method, requestBody));
+    }
+
+    private String key(String method, String url, String requestDigest) {
+        int fragment = url.indexOf('#');
+        String key = method.toUpperCase(Locale.ROOT) + " " + withoutIgnoredParams(fragment >= 0 ? url.substring(0, fragment) : url);
+        return requestDigest == null ? key : key + " " + requestDigest;
+    }
+
+    private String withoutIgnoredParams(String url) {
+        int query = url.indexOf('?');
+        if (query < 0 || ignoredParams.isEmpty()) {
+            return url;
+        }
+        StringJoiner kept = new StringJoiner("&");
+        for (String param : url.substring(query + 1).split("&")) {
+            int equals = param.indexOf('=');
+            if (!ignoredParams.contains(equals >= 0 ? param.substring(0, equals) : param)) {
+                kept.add(param);
+            }
+        }
+        return kept.length() == 0 ? url.substring(0, query) : url.substring(0, query + 1) + kept;
+    }
+
+    private static String requestDigest(String method, byte[] requestBody) {
+        String upper = method.toUpperCase(Locale.ROOT);
+        return upper.equals("GET") || upper.equals("HEAD") ? null : digest(requestBody == null ? new byte[0] : requestBody);
+    }
+
+    /**
+     * Find the recorded response for a request, or null
+     */
+    public Entry find(String method, String url, byte[] requestBody) {
+        return entries.get(key(method, url, requestBody));
+    }
+
+    /**
+     * Read body of a recorded response
+     */
+    public synchronized byte[] readBody(Entry entry) throws IOException {
+        byte[] body = new byte[entry.bodyLength];
+        if (entry.bodyLength > 0) {
+            RandomAccessFile file = bodiesFile();
+            file.seek(entry.bodyOffset);
+            file.readFully(body);
+        }
+        return body;
+    }
+
+    /**
+     * Store a response; a later response for the same key replaces the earlier one
+     */
+    public synchronized void record(String method, String url, byte[] requestBody, int status, List<String[]> headers,
+                                    byte[] body) throws IOException {
+        Entry entry = new Entry();
+        entry.method = method.toUpperCase(Locale.ROOT);
+        entry.url = url;
+        entry.requestDigest = requestDigest(method, requestBody);
+        entry.status = status;
+        entry.headers = headers;
+        entry.bodyDigest = digest(body);
+        long[] stored = bodiesByDigest.get(entry.bodyDigest);
+        if (stored == null) {
+            RandomAccessFile file = bodiesFile();
+            stored = new long[]{file.length(), body.length};
+            file.seek(stored[0]);
+            file.write(body);
+            bodiesByDigest.put(entry.bodyDigest, stored);
+        }
+        entry.bodyOffset = stored[0];
+        entry.bodyLength = (int) stored[1];
+        entries.put(key(entry.method, url, entry.requestDigest), entry);
+        dirty = true;
+    }
+
+    /**
+     * Write the index if anything was recorded since the last save
+     */
+    public synchronized void save() throws IOException {
+        if (!dirty) {
+            return;
+        }
+        List<Entry> sorted = new ArrayList<>(entries.values());
+        sorted.sort(Comparator.comparing((Entry entry) -> entry.url).thenComparing(entry -> entry.method));
+        Path temporary = directory.resolve(INDEX_FILE + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            GSON.toJson(sorted, writer);
+        }
+        Files.move(temporary, directory.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING);
+        if (bodies != null) {
+            bodies.getFD().sync();
+        }
+        dirty = false;
+    }
+
+    /**
+     * Number of recorded responses
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private RandomAccessFile bodiesFile() throws IOException {
+        if (bodies == null) {
+            Files.createDirectories(directory);
+            bodies = new RandomAccessFile(directory.resolve(BODIES_FILE).toFile(), "rw");
+        }
+        return bodies;
+    }
+
+    private static String digest(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.amazon.utilities;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.NetworkInterceptor;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the HTTP traffic of browsers into a TrafficArchive and serves it back on later runs
+ * traffic.mode=record passes every request to the network and stores the response; traffic.mode=replay
+ * answers every request from traffic.archive, so pages load at disk speed with no network at all.
+ * A request missing from the archive gets traffic.replay.missStatus (404), or goes to the network
+ * with traffic.replay.passthrough=true. Interception runs in the browser through the DevTools protocol,
+ * so HTTPS needs no proxy certificates; it works with Chrome and Edge.
+ */
+public class TrafficRecorder {
+    private static final Set<String> DROPPED_HEADERS = Set.of("content-length", "content-encoding", "transfer-encoding");
+    private static volatile TrafficArchive archive;
+    private static final AtomicLong recorded = new AtomicLong();
+    private static final AtomicLong replayed = new AtomicLong();
+    private static final AtomicLong missed = new AtomicLong();
+
+    private TrafficRecorder() {
+    }
+
+    /**
+     * Get traffic.mode: off, record or replay
+     */
+    public static String getMode() {
+        return FrameworkConfig.get().getProperty("traffic.mode", "off").trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Start recording or replaying on the driver as configured
+     * The interception lasts as long as the browser
+     */
+    public static void attach(WebDriver driver) {
+        String mode = getMode();
+        if (mode.equals("off")) {
+            return;
+        }
+        if (!(driver instanceof HasDevTools)) {
+            System.err.println("traffic.mode=" + mode + " needs a DevTools browser (chrome or edge); traffic is not "
+                    + (mode.equals("record") ? "recorded" : "replayed") + " for " + driver.getClass().getSimpleName());
+            return;
+        }
+        switch (mode) {
+            case "record":
+                new NetworkInterceptor(driver, (Filter) next -> request -> record(request, next.execute(request)));
+                break;
+            case "replay":
+                boolean passthrough = FrameworkConfig.get().getBoolean("traffic.replay.passthrough", false);
+                new NetworkInterceptor(driver, (Filter) next -> request -> {
+                    HttpResponse response = replay(request);
+                    return response != null || !passthrough ? orMiss(response, request) : next.execute(request);
+                });
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown traffic.mode '" + mode + "', expected off, record or replay");
+        }
+    }
+
+    private static HttpResponse record(HttpRequest request, HttpResponse response) {
+        byte[] requestBody = requestBody(request);
+        byte[] body = Contents.bytes(response.getContent());
+        List<String[]> headers = new ArrayList<>();
+        for (String name : response.getHeaderNames()) {
+            // Bodies are stored decoded, so length and encoding headers would no longer match
+            if (!DROPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                for (String value : response.getHeaders(name)) {
+                    headers.add(new String[]{name, value});
+                }
+            }
+        }
+        try {
+            archive().record(request.getMethod().toString(), request.getUri(), requestBody, response.getStatus(), headers, body);
+            recorded.incrementAndGet();
+        } catch (IOException e) {
+            System.err.println("Could not record " + request.getUri() + ": " + e.getMessage());
+        }
+        response.setContent(Contents.bytes(body));
+        return response;
+    }
+
+    private static HttpResponse replay(HttpRequest request) {
+        TrafficArchive.Entry entry = archive().find(request.getMethod().toString(), request.getUri(), requestBody(request));
+        if (entry == null) {
+            return null;
+        }
+        try {
+            HttpResponse response = new HttpResponse().setStatus(entry.status);
+            for (String[] header : entry.headers) {
+                response.addHeader(header[0], header[1]);
+            }
+            response.setContent(Contents.bytes(archive().readBody(entry)));
+            replayed.incrementAndGet();
+            return response;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not replay " + request.getUri(), e);
+        }
+    }
+
+    /**
+     * Read the request body and put it back, so the request can still be sent on
+     */
+    private static byte[] requestBody(HttpRequest request) {
+        byte[] body = Contents.bytes(request.getContent());
+        request.setContent(Contents.bytes(body));
+        return body;
+    }
+
+    private static HttpResponse orMiss(HttpResponse response, HttpRequest request) {
+        if (response != null) {
+            return response;
+        }
+        missed.incrementAndGet();
+        System.err.println("Not in traffic archive: " + request.getMethod() + " " + request.getUri());
+        return new HttpResponse()
+                .setStatus(FrameworkConfig.get().getInt("traffic.replay.missStatus", 404))
+                .setContent(Contents.utf8String("Not in traffic archive"));
+    }
+
+    /**
+     * Get archive shared by the whole JVM, opened from traffic.archive
+     */
+    public static TrafficArchive archive() {
+        TrafficArchive current = archive;
+        if (current == null) {
+            synchronized (TrafficRecorder.class) {
+                current = archive;
+                if (current == null) {
+                    FrameworkConfig config = FrameworkConfig.get();
+                    String directory = config.getProperty("traffic.archive", "src/test/resources/traffic");
+                    List<String> ignoredParams = new ArrayList<>();
+                    for (String param : config.getProperty("traffic.ignoredParams", "").split(",")) {
+                        if (!param.isBlank()) {
+                            ignoredParams.add(param.trim());
+                        }
+                    }
+                    try {
+                        current = TrafficArchive.open(directory, ignoredParams);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Could not open traffic archive " + directory, e);
+                    }
+                    if (getMode().equals("replay") && current.size() == 0) {
+                        System.err.println("Traffic archive " + directory + " is empty; record it first with traffic.mode=record");
+                    }
+                    TrafficArchive saved = current;
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> save(saved), "traffic-archive-shutdown"));
+                    archive = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Write recorded traffic to disk and print how many responses were recorded or replayed
+     */
+    public static void saveAndPrintSummary() {
+        TrafficArchive current = archive;
+        if (current == null) {
+            return;
+        }
+        save(current);
+        System.out.printf("Traffic %s: %d recorded, %d replayed, %d not in archive (%s, %d responses)%n",
+                getMode(), recorded.get(), replayed.get(), missed.get(), current.getDirectory(), current.size());
+    }
+
+    private static void save(TrafficArchive current) {
+        try {
+            current.save();
+        } catch (IOException e) {
+            System.err.println("Could not save traffic archive " + current.getDirectory() + ": " + e.getMessage());
+        }
+    }
+}
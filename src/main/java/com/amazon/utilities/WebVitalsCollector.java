@@ -0,0 +1,193 @@
+package com.amazon.utilities;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Page-load performance (Navigation Timing, paint timings, LCP, CLS, resources) read from the browser
+ * With webVitals.enabled, BrowserInteractionUtility collects a sample after navigateTo and after clicks
+ * that load a new document. Samples wait on the current thread until the step reports them
+ * (see {@link #drainPendingSummaries()}) and are exported per URL as CSV and JSON under output.dir/webvitals.
+ */
+public class WebVitalsCollector {
+    private static final String[] COLUMNS = {"ttfbMs", "fcpMs", "lcpMs", "domContentLoadedMs", "loadMs", "cls",
+            "resourceCount", "transferKb"};
+    private static final String COLLECT_SCRIPT = String.join("\n",
+            "var done = arguments[arguments.length - 1];",
+            "var result = {};",
+            // CLS is only reported where layout shifts are observable; elsewhere it stays unmeasured rather than 0
+            "var types = (window.PerformanceObserver && PerformanceObserver.supportedEntryTypes) || [];",
+            "if (types.indexOf('layout-shift') >= 0) { result.cls = 0; }",
+            "var nav = performance.getEntriesByType('navigation')[0];",
+            "if (nav) {",
+            "  result.ttfbMs = nav.responseStart; result.domContentLoadedMs = nav.domContentLoadedEventEnd;",
+            "  if (nav.loadEventEnd > 0) { result.loadMs = nav.loadEventEnd; }",
+            "  result.transferKb = (nav.transferSize || 0) / 1024;",
+            "}",
+            "performance.getEntriesByType('paint').forEach(function (e) {",
+            "  if (e.name === 'first-contentful-paint') { result.fcpMs = e.startTime; }",
+            "});",
+            "var resources = performance.getEntriesByType('resource');",
+            "result.resourceCount = resources.length;",
+            "resources.forEach(function (e) { result.transferKb = (result.transferKb || 0) + (e.transferSize || 0) / 1024; });",
+            // LCP and layout shifts are only exposed to observers; buffered entries arrive asynchronously
+            "function observe(type, handler) {",
+            "  try { new PerformanceObserver(function (list) { list.getEntries().forEach(handler); })",
+            "      .observe({type: type, buffered: true}); } catch (e) { }",
+            "}",
+            "observe('largest-contentful-paint', function (e) { result.lcpMs = e.renderTime || e.loadTime || e.startTime; });",
+            "if ('cls' in result) {",
+            "  observe('layout-shift', function (e) { if (!e.hadRecentInput) { result.cls += e.value; } });",
+            "}",
+            "setTimeout(function () { done(result); }, 50);");
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final Queue<Sample> SAMPLES = new ConcurrentLinkedQueue<>();
+    private static final ThreadLocal<List<Sample>> PENDING = ThreadLocal.withInitial(ArrayList::new);
+
+    /**
+     * One page load: when, which URL, what triggered it and the measured values
+     */
+    public static class Sample {
+        public final String timestamp;
+        public final String url;
+        public final String trigger;
+        public final Map<String, Double> metrics;
+
+        Sample(String url, String trigger, Map<String, Double> metrics) {
+            this.timestamp = Instant.now().toString();
+            this.url = url;
+            this.trigger = trigger;
+            this.metrics = metrics;
+        }
+
+        /**
+         * One-line summary for the report, e.g. "TTFB 120 ms | FCP 480 ms | ..."
+         */
+        public String summary() {
+            return String.format("Web vitals (%s) %s: TTFB %s ms | FCP %s ms | LCP %s ms | DOMContentLoaded %s ms | "
+                            + "Load %s ms | CLS %s | %s resources, %s KB",
+                    trigger, url, format("ttfbMs", 0), format("fcpMs", 0), format("lcpMs", 0),
+                    format("domContentLoadedMs", 0), format("loadMs", 0), format("cls", 3),
+                    format("resourceCount", 0), format("transferKb", 0));
+        }
+
+        private String format(String metric, int decimals) {
+            Double value = metrics.get(metric);
+            return value == null ? "-" : String.format("%." + decimals + "f", value);
+        }
+    }
+
+    private WebVitalsCollector() {
+    }
+
+    public static boolean isEnabled() {
+        return FrameworkConfig.get().getBoolean("webVitals.enabled", false);
+    }
+
+    /**
+     * Time origin of the current document, used to tell whether a click loaded a new page
+     */
+    public static Double timeOrigin(WebDriver driver) {
+        try {
+            Object origin = ((JavascriptExecutor) driver).executeScript("return performance.timeOrigin;");
+            return origin instanceof Number ? ((Number) origin).doubleValue() : null;
+        } catch (WebDriverException | ClassCastException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Collect a sample for the current page; failures are logged and ignored, measuring never fails a test
+     */
+    public static void collect(WebDriver driver, String trigger) {
+        try {
+            Sample sample = new Sample(driver.getCurrentUrl(), trigger, measure(driver));
+            SAMPLES.add(sample);
+            PENDING.get().add(sample);
+        } catch (WebDriverException | ClassCastException e) {
+            System.err.println("Could not collect web vitals: " + String.valueOf(e.getMessage()).split("\n")[0]);
+        }
+    }
+
+    /**
+     * Read the current page's timings (ttfbMs, fcpMs, lcpMs, domContentLoadedMs, loadMs, cls,
+     * resourceCount, transferKb); metrics the browser doesn't support are missing from the map
+     */
+    public static Map<String, Double> measure(WebDriver driver) {
+        Object result = ((JavascriptExecutor) driver).executeAsyncScript(COLLECT_SCRIPT);
+        Map<String, Double> metrics = new LinkedHashMap<>();
+        if (result instanceof Map) {
+            for (String column : COLUMNS) {
+                Object value = ((Map<?, ?>) result).get(column);
+                if (value instanceof Number) {
+                    metrics.put(column, ((Number) value).doubleValue());
+                }
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Report lines of the samples collected on this thread since the last call
+     */
+    public static List<String> drainPendingSummaries() {
+        List<Sample> pending = PENDING.get();
+        List<String> summaries = new ArrayList<>();
+        for (Sample sample : pending) {
+            summaries.add(sample.summary());
+        }
+        pending.clear();
+        return summaries;
+    }
+
+    /**
+     * Write all samples of this JVM to output.dir/webvitals as web-vitals.csv and web-vitals.json (grouped by URL)
+     */
+    public static void export() {
+        if (SAMPLES.isEmpty()) {
+            return;
+        }
+        Path directory = Paths.get(FrameworkConfig.get().getProperty("output.dir", "test-output"), "webvitals");
+        List<Sample> samples = new ArrayList<>(SAMPLES);
+        samples.sort(Comparator.comparing((Sample sample) -> sample.url).thenComparing(sample -> sample.timestamp));
+        try {
+            Files.createDirectories(directory);
+            try (Writer writer = Files.newBufferedWriter(directory.resolve("web-vitals.csv"), StandardCharsets.UTF_8)) {
+                writer.write("timestamp,url,trigger," + String.join(",", COLUMNS) + "\n");
+                for (Sample sample : samples) {
+                    StringBuilder line = new StringBuilder(sample.timestamp).append(',')
+                            .append('"').append(sample.url.replace("\"", "\"\"")).append('"').append(',')
+                            .append(sample.trigger);
+                    for (String column : COLUMNS) {
+                        Double value = sample.metrics.get(column);
+                        line.append(',').append(value == null ? "" : String.format(Locale.ROOT, "%.3f", value));
+                    }
+                    writer.write(line.append('\n').toString());
+                }
+            }
+            Map<String, List<Sample>> byUrl = new LinkedHashMap<>();
+            for (Sample sample : samples) {
+                byUrl.computeIfAbsent(sample.url, url -> new ArrayList<>()).add(sample);
+            }
+            try (Writer writer = Files.newBufferedWriter(directory.resolve("web-vitals.json"), StandardCharsets.UTF_8)) {
+                GSON.toJson(byUrl, writer);
+            }
+            System.out.println("Web vitals: " + samples.size() + " page loads written to " + directory);
+        } catch (IOException e) {
+            System.err.println("Could not export web vitals: " + e.getMessage());
+        }
+    }
+}
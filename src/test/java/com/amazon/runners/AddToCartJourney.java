@@ -0,0 +1,39 @@
+package com.amazon.runners;
+
+import com.amazon.pages.AmazonHomePage;
+import com.amazon.pages.AmazonProductDetailsPage;
+import com.amazon.pages.AmazonSearchResultsPage;
+import com.amazon.utilities.LatencyRecorder;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+
+/**
+ * The add-to-cart journey through the page objects (home, search, product, add to cart), each step
+ * timed into a LatencyRecorder as step.&lt;name&gt;
+ * Shared by the performance gate and the load generator so both measure the flow the tests use.
+ */
+public class AddToCartJourney {
+    private final LatencyRecorder recorder;
+
+    public AddToCartJourney(LatencyRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Run the journey in the given browser, starting from the home page at baseUrl
+     */
+    public void run(WebDriver driver, String baseUrl, String product) throws Exception {
+        AmazonHomePage homePage = new AmazonHomePage(driver);
+        AmazonSearchResultsPage searchResultsPage = new AmazonSearchResultsPage(driver);
+        AmazonProductDetailsPage productDetailsPage = new AmazonProductDetailsPage(driver);
+
+        recorder.time("step.openHome", () -> homePage.navigateToAmazon(baseUrl));
+        recorder.time("step.search", () -> homePage.searchProduct(product));
+        recorder.time("step.readFirstResult", () -> Assert.assertNotNull(searchResultsPage.getFirstProductTitle()));
+        recorder.time("step.openProduct", searchResultsPage::clickFirstProduct);
+        recorder.time("step.addToCart", () -> {
+            productDetailsPage.addToCart();
+            productDetailsPage.waitForCartConfirmation();
+        });
+    }
+}
@@ -0,0 +1,155 @@
+package com.amazon.runners;
+
+import com.amazon.stepdefinitions.ScenarioContext;
+import com.amazon.utilities.FrameworkConfig;
+import com.amazon.utilities.ShardPlanner;
+import com.amazon.utilities.TestDataSource;
+import io.cucumber.testng.CucumberOptions;
+import io.cucumber.testng.CucumberPropertiesProvider;
+import io.cucumber.testng.FeatureWrapper;
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+import io.cucumber.testng.TestNGCucumberRunner;
+import org.testng.ITestContext;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Cucumber Test Runner for data-driven scenarios
+ * Runs every @datadriven scenario once per record of the configured test data file (testData.products),
+ * in parallel on dataproviderthreadcount threads; failed scenario/record pairs are rerun at the end
+ */
+@CucumberOptions(
+        features = "src/test/resources/features",
+        glue = {"com.amazon.stepdefinitions"},
+        plugin = {
+                "pretty",
+                // html report under output.dir is added by SuiteConfigurationListener.configure
+        },
+        monochrome = true,
+        tags = "@datadriven"
+)
+public class CucumberDataDrivenRunnerTest {
+    private TestNGCucumberRunner testNGCucumberRunner;
+    private final ScenarioRerunQueue rerunQueue = new ScenarioRerunQueue(this::runWithTestData);
+
+    @BeforeClass(alwaysRun = true)
+    public void setUpClass(ITestContext context) {
+        // Thread count and html report also when run without testng.xml
+        SuiteConfigurationListener.configure(context.getCurrentXmlTest(), "cucumber-datadriven-report.html");
+        CucumberPropertiesProvider properties = context.getCurrentXmlTest()::getParameter;
+        testNGCucumberRunner = new TestNGCucumberRunner(this.getClass(), properties);
+    }
+
+    @Test(groups = "cucumber", description = "Runs data-driven Cucumber Scenarios", dataProvider = "dataDrivenScenarios")
+    public void runScenario(PickleWrapper pickleWrapper, FeatureWrapper featureWrapper, Map<String, String> record) {
+        rerunQueue.runOrDefer(pickleWrapper, featureWrapper, record);
+    }
+
+    @Test(groups = "cucumber", description = "Reruns failed data-driven Cucumber Scenarios",
+            dataProvider = "failedDataDrivenScenarios", dependsOnMethods = "runScenario", alwaysRun = true)
+    public void rerunFailedScenario(PickleWrapper pickleWrapper, FeatureWrapper featureWrapper, Map<String, String> record) {
+        rerunQueue.rerun(pickleWrapper, featureWrapper, record);
+    }
+
+    @DataProvider(name = "failedDataDrivenScenarios", parallel = true)
+    public Object[][] failedDataDrivenScenarios() {
+        return rerunQueue.drain();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runWithTestData(Object[] row) {
+        ScenarioContext.setTestData((Map<String, String>) row[2]);
+        try {
+            testNGCucumberRunner.runScenario(((PickleWrapper) row[0]).getPickle());
+        } finally {
+            ScenarioContext.clearTestData();
+        }
+    }
+
+    /**
+     * Expands each scenario with each test data record
+     * Records are streamed from the source per scenario, so the full cross product is never built;
+     * with shard.count set, each scenario/record pair runs on exactly one agent
+     */
+    @DataProvider(name = "dataDrivenScenarios", parallel = true)
+    public Iterator<Object[]> dataDrivenScenarios() {
+        if (testNGCucumberRunner == null) {
+            return Collections.emptyIterator();
+        }
+        Object[][] scenarios = testNGCucumberRunner.provideScenarios();
+        FrameworkConfig config = FrameworkConfig.get();
+        String dataPath = config.getProperty("testData.products", "src/test/resources/testdata/testdata.json");
+        String sheetName = config.getProperty("testData.sheet");
+        String keyField = config.getProperty("testData.keyField", "productName");
+        ShardPlanner shardPlanner = ShardPlanner.fromConfig();
+
+        return new Iterator<Object[]>() {
+            private int scenarioIndex = -1;
+            private Iterator<Map<String, String>> records = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!records.hasNext() && scenarioIndex + 1 < scenarios.length) {
+                    scenarioIndex++;
+                    String scenarioKey = DurationSchedulingListener.scenarioKey(scenarios[scenarioIndex]);
+                    try {
+                        records = shardPlanner.filter(TestDataSource.iterate(dataPath, sheetName),
+                                record -> scenarioKey + "|" + record.get(keyField));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Could not read test data " + dataPath, e);
+                    }
+                }
+                return records.hasNext();
+            }
+
+            @Override
+            public Object[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Object[] scenario = scenarios[scenarioIndex];
+                Map<String, String> record = records.next();
+                return new Object[]{new RecordPickleWrapper((PickleWrapper) scenario[0], record), scenario[1], record};
+            }
+        };
+    }
+
+    /**
+     * Scenario of one record; TestNG shows it as the scenario name plus the record key
+     */
+    private static class RecordPickleWrapper implements PickleWrapper {
+        private final Pickle pickle;
+        private final String name;
+
+        RecordPickleWrapper(PickleWrapper scenario, Map<String, String> record) {
+            this.pickle = scenario.getPickle();
+            this.name = ScenarioContext.displayName(pickle.getName(), record);
+        }
+
+        @Override
+        public Pickle getPickle() {
+            return pickle;
+        }
+
+        @Override
+        public String toString() {
+            return "\"" + name + "\"";
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDownClass() {
+        if (testNGCucumberRunner != null) {
+            testNGCucumberRunner.finish();
+        }
+    }
+}
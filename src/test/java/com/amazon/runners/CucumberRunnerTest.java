@@ -2,20 +2,67 @@ package com.amazon.runners;
 
 import io.cucumber.testng.AbstractTestNGCucumberTests;
 import io.cucumber.testng.CucumberOptions;
+import io.cucumber.testng.FeatureWrapper;
+import io.cucumber.testng.PickleWrapper;
+import org.testng.ITestContext;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
 import com.amazon.stepdefinitions.*;
 
 /**
  * Cucumber Test Runner
+ * Scenarios run in parallel on dataproviderthreadcount threads (see SuiteConfigurationListener),
+ * longest first according to the duration history; with shard.count set, only this agent's
+ * share of the scenarios runs (see DurationSchedulingListener).
+ * Failed scenarios are rerun at the end of the runner (see ScenarioRerunQueue).
  */
 @CucumberOptions(
         features = "src/test/resources/features",
         glue = {"com.amazon.stepdefinitions"},
         plugin = {
                 "pretty",
-                "html:test-output/CucumberReports/cucumber-report.html",
+                // html report under output.dir is added by SuiteConfigurationListener.configure
         },
-        monochrome = true
-        // tags = "@smoke or @regression"
+        monochrome = true,
+        // Data-driven scenarios run through CucumberDataDrivenRunnerTest
+        tags = "not @datadriven"
+        // tags = "(@smoke or @regression) and not @datadriven"
 )
 public class CucumberRunnerTest extends AbstractTestNGCucumberTests {
+    private String testName;
+    private final ScenarioRerunQueue rerunQueue =
+            new ScenarioRerunQueue(row -> super.runScenario((PickleWrapper) row[0], (FeatureWrapper) row[1]));
+
+    @Override
+    @BeforeClass(alwaysRun = true)
+    public void setUpClass(ITestContext context) {
+        testName = context.getName();
+        // Thread count and html report also when run without testng.xml
+        SuiteConfigurationListener.configure(context.getCurrentXmlTest(), "cucumber-report.html");
+        super.setUpClass(context);
+    }
+
+    @Override
+    @DataProvider(parallel = true)
+    public Object[][] scenarios() {
+        return DurationSchedulingListener.scheduleScenarios(testName, super.scenarios());
+    }
+
+    @Override
+    @Test(groups = "cucumber", description = "Runs Cucumber Scenarios", dataProvider = "scenarios")
+    public void runScenario(PickleWrapper pickleWrapper, FeatureWrapper featureWrapper) {
+        rerunQueue.runOrDefer(pickleWrapper, featureWrapper);
+    }
+
+    @Test(groups = "cucumber", description = "Reruns failed Cucumber Scenarios", dataProvider = "failedScenarios",
+            dependsOnMethods = "runScenario", alwaysRun = true)
+    public void rerunFailedScenario(PickleWrapper pickleWrapper, FeatureWrapper featureWrapper) {
+        rerunQueue.rerun(pickleWrapper, featureWrapper);
+    }
+
+    @DataProvider(parallel = true)
+    public Object[][] failedScenarios() {
+        return rerunQueue.drain();
+    }
 }
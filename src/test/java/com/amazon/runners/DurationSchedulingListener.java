@@ -0,0 +1,170 @@
+package com.amazon.runners;
+
+import com.amazon.utilities.DurationHistory;
+import com.amazon.utilities.FrameworkConfig;
+import com.amazon.utilities.LptScheduler;
+import com.amazon.utilities.ShardPlanner;
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+import org.testng.*;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlSuite;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Orders tests longest-first from the duration history and records durations for the next run
+ * Prints predicted versus actual makespan for each TestNG test so the balancing can be checked.
+ * When shard.count is set, only this agent's share of scenarios and methods is kept (see ShardPlanner).
+ */
+public class DurationSchedulingListener implements IMethodInterceptor, ITestListener, ISuiteListener {
+    private static final Map<String, Prediction> predictions = new ConcurrentHashMap<>();
+
+    /**
+     * Keep this shard's Cucumber scenarios (rows of PickleWrapper, FeatureWrapper) and order them longest first
+     * Called from the runner's data provider; testName identifies the TestNG test for the makespan report
+     */
+    public static Object[][] scheduleScenarios(String testName, Object[][] scenarios) {
+        DurationHistory history = DurationHistory.shared();
+        List<Object[]> shardScenarios = ShardPlanner.fromConfig()
+                .select(Arrays.asList(scenarios), DurationSchedulingListener::scenarioKey, "scenarios");
+        List<Object[]> ordered = LptScheduler.order(shardScenarios,
+                DurationSchedulingListener::scenarioKey, row -> history.getDurationOrMean(scenarioKey(row)));
+
+        List<Long> durations = new ArrayList<>();
+        for (Object[] row : ordered) {
+            durations.add(history.getDurationOrMean(scenarioKey(row)));
+        }
+        int workers = FrameworkConfig.get().getInt("dataproviderthreadcount", 1);
+        registerPrediction(testName, LptScheduler.predictMakespan(durations, workers), workers, ordered.size());
+        return ordered.toArray(new Object[0][]);
+    }
+
+    /**
+     * Key of a scenario row from the Cucumber data provider
+     */
+    static String scenarioKey(Object[] scenarioRow) {
+        Pickle pickle = ((PickleWrapper) scenarioRow[0]).getPickle();
+        return DurationHistory.scenarioKey(pickle.getUri(), pickle.getLine());
+    }
+
+    private static void registerPrediction(String testName, long makespanMillis, int workers, int itemCount) {
+        if (testName != null) {
+            predictions.put(testName, new Prediction(makespanMillis, workers, itemCount));
+        }
+    }
+
+    /**
+     * Keep this shard's plain TestNG methods and order them longest first
+     * Cucumber runner and data-driven methods are left alone; they are sharded in their data providers
+     */
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        DurationHistory history = DurationHistory.shared();
+        List<IMethodInstance> scheduled = new ArrayList<>();
+        List<IMethodInstance> untouched = new ArrayList<>();
+        for (IMethodInstance method : methods) {
+            // Cucumber scenarios and data-driven records are sharded by their data providers
+            if (isCucumberMethod(method.getMethod()) || isDataDriven(method.getMethod())) {
+                untouched.add(method);
+            } else {
+                scheduled.add(method);
+            }
+        }
+        if (scheduled.isEmpty()) {
+            return methods;
+        }
+
+        scheduled = ShardPlanner.fromConfig().select(scheduled, DurationSchedulingListener::methodKey, "test methods");
+        List<IMethodInstance> ordered = LptScheduler.order(scheduled, DurationSchedulingListener::methodKey,
+                method -> history.getDurationOrMean(methodKey(method)));
+        List<Long> durations = new ArrayList<>();
+        for (IMethodInstance method : ordered) {
+            durations.add(history.getDurationOrMean(methodKey(method)));
+        }
+        XmlSuite suite = context.getSuite().getXmlSuite();
+        int workers = suite.getParallel() == XmlSuite.ParallelMode.NONE ? 1 : suite.getThreadCount();
+        registerPrediction(context.getName(), LptScheduler.predictMakespan(durations, workers), workers, ordered.size());
+
+        ordered.addAll(untouched);
+        return ordered;
+    }
+
+    private static String methodKey(IMethodInstance method) {
+        ITestNGMethod testMethod = method.getMethod();
+        return DurationHistory.methodKey(testMethod.getRealClass().getName(), testMethod.getMethodName());
+    }
+
+    private static boolean isCucumberMethod(ITestNGMethod method) {
+        return Arrays.asList(method.getGroups()).contains("cucumber");
+    }
+
+    private static boolean isDataDriven(ITestNGMethod method) {
+        Test test = method.getConstructorOrMethod().getMethod().getAnnotation(Test.class);
+        return test != null && !test.dataProvider().isEmpty();
+    }
+
+    /**
+     * Record TestNG method durations; scenario durations are recorded by Hooks
+     * Data-driven invocations are skipped: one key can't describe a stream of records
+     */
+    private void recordDuration(ITestResult result) {
+        ITestNGMethod method = result.getMethod();
+        if (isCucumberMethod(method) || isDataDriven(method)) {
+            return;
+        }
+        DurationHistory.shared().record(DurationHistory.methodKey(method.getRealClass().getName(), method.getMethodName()),
+                result.getEndMillis() - result.getStartMillis());
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        recordDuration(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        recordDuration(result);
+    }
+
+    /**
+     * Compare predicted and actual wall time of the TestNG test that just finished
+     */
+    @Override
+    public void onFinish(ITestContext context) {
+        Prediction prediction = predictions.remove(context.getName());
+        if (prediction == null) {
+            return;
+        }
+        long actualMillis = context.getEndDate().getTime() - context.getStartDate().getTime();
+        System.out.printf("%n📐 Schedule '%s': %d items on %d workers, predicted makespan %.1f s, actual %.1f s (%+.0f%%)%n",
+                context.getName(), prediction.itemCount, prediction.workers, prediction.makespanMillis / 1000.0,
+                actualMillis / 1000.0,
+                prediction.makespanMillis > 0 ? 100.0 * (actualMillis - prediction.makespanMillis) / prediction.makespanMillis : 0);
+    }
+
+    /**
+     * Persist durations of this run for the next one
+     */
+    @Override
+    public void onFinish(ISuite suite) {
+        try {
+            DurationHistory.shared().save();
+        } catch (IOException e) {
+            System.err.println("Could not save duration history: " + e.getMessage());
+        }
+    }
+
+    private static class Prediction {
+        private final long makespanMillis;
+        private final int workers;
+        private final int itemCount;
+
+        Prediction(long makespanMillis, int workers, int itemCount) {
+            this.makespanMillis = makespanMillis;
+            this.workers = workers;
+            this.itemCount = itemCount;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.amazon.runners;
+
+import com.amazon.utilities.DurationHistory;
+import com.amazon.utilities.FrameworkConfig;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs testng.xml in N forked JVMs on this host and aggregates their results
+ * Each fork gets one shard of the suite (see ShardPlanner), its own output directory
+ * test-output/fork-i and its own driver port range, so forks share no files or ports.
+ * Run through the forked Maven profile: mvn test -Pforked -Dforks=4
+ */
+public class ForkedSuiteLauncher {
+    private static final String ROOT_OUTPUT_DIR = "test-output";
+
+    public static void main(String[] args) throws Exception {
+        System.exit(new ForkedSuiteLauncher().run(args.length > 0 ? args[0] : "testng.xml"));
+    }
+
+    /**
+     * Start all forks, wait for them and write test-output/fork-summary.txt
+     * Returns the process exit code: 0 if every fork passed
+     */
+    public int run(String suiteFile) throws IOException, InterruptedException {
+        FrameworkConfig config = FrameworkConfig.get();
+        int forks = Math.max(1, config.getInt("forks", Runtime.getRuntime().availableProcessors() / 2));
+        int portRangeStart = config.getInt("fork.portRangeStart", 20000);
+        int portRangeSize = config.getInt("driver.portRangeSize", 100);
+        // Combine with machine-level sharding: fork i of machine m runs shard m * forks + i
+        int machineIndex = config.getInt("shard.index", 0);
+        int machineCount = config.getInt("shard.count", 1);
+
+        List<Process> processes = new ArrayList<>();
+        List<Path> forkDirs = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < forks; i++) {
+            Path forkDir = Paths.get(ROOT_OUTPUT_DIR, "fork-" + i);
+            Files.createDirectories(forkDir);
+            // Stale files from an earlier run would be read as this run's results
+            Files.deleteIfExists(forkDir.resolve("durations.properties"));
+            Files.deleteIfExists(forkDir.resolve("testng").resolve("testng-results.xml"));
+
+            List<String> command = new ArrayList<>();
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            String jvmArgs = config.getProperty("fork.jvmArgs", "");
+            for (String jvmArg : jvmArgs.trim().split("\\s+")) {
+                if (!jvmArg.isEmpty()) {
+                    command.add(jvmArg);
+                }
+            }
+            command.add("-Dshard.index=" + (machineIndex * forks + i));
+            command.add("-Dshard.count=" + (machineCount * forks));
+            command.add("-Doutput.dir=" + forkDir);
+            command.add("-Ddriver.portRangeStart=" + (portRangeStart + i * portRangeSize));
+            command.add("-Ddriver.portRangeSize=" + portRangeSize);
+            command.add("-Ddurations.runFile=" + forkDir.resolve("durations.properties"));
+            command.add("-Dconfig.path=" + config.getSourcePath());
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add("org.testng.TestNG");
+            command.add("-d");
+            command.add(forkDir.resolve("testng").toString());
+            command.add(suiteFile);
+
+            File consoleLog = forkDir.resolve("console.log").toFile();
+            processes.add(new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(consoleLog)
+                    .start());
+            forkDirs.add(forkDir);
+            System.out.println("Started fork " + i + " (shard " + (machineIndex * forks + i) + "/" + (machineCount * forks)
+                    + ", ports " + (portRangeStart + i * portRangeSize) + "+, log " + consoleLog + ")");
+        }
+
+        List<ForkResult> results = new ArrayList<>();
+        for (int i = 0; i < processes.size(); i++) {
+            int exitCode = processes.get(i).waitFor();
+            ForkResult result = ForkResult.read(i, forkDirs.get(i), exitCode);
+            results.add(result);
+            System.out.println("Fork " + i + " finished: " + result.describe());
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        mergeDurations(forkDirs);
+        return writeSummary(results, elapsedMillis);
+    }
+
+    /**
+     * Merge the durations measured by every fork into the shared history file
+     * When this machine is itself a shard, they go to its per-shard run file instead (see DurationHistory.shared)
+     */
+    private static void mergeDurations(List<Path> forkDirs) {
+        DurationHistory history = DurationHistory.shared();
+        for (Path forkDir : forkDirs) {
+            Path runFile = forkDir.resolve("durations.properties");
+            if (Files.exists(runFile)) {
+                history.recordRun(runFile.toString());
+            }
+        }
+        try {
+            history.save();
+        } catch (IOException e) {
+            System.err.println("Could not save duration history: " + e.getMessage());
+        }
+    }
+
+    private static int writeSummary(List<ForkResult> results, long elapsedMillis) throws IOException {
+        int total = 0, passed = 0, failed = 0, skipped = 0;
+        boolean allCompleted = true;
+        List<String> lines = new ArrayList<>();
+        for (ForkResult result : results) {
+            total += result.total;
+            passed += result.passed;
+            failed += result.failed;
+            skipped += result.skipped;
+            allCompleted &= result.completed();
+            lines.add("Fork " + result.index + ": " + result.describe() + " - " + result.forkDir);
+            for (String failure : result.failures) {
+                lines.add("    FAILED " + failure);
+            }
+        }
+        lines.add(0, String.format("Forked run: %d forks, total %d, passed %d, failed %d, skipped %d, wall time %.1f s",
+                results.size(), total, passed, failed, skipped, elapsedMillis / 1000.0));
+
+        Path summaryFile = Paths.get(ROOT_OUTPUT_DIR, "fork-summary.txt");
+        Files.write(summaryFile, lines, StandardCharsets.UTF_8);
+        lines.forEach(System.out::println);
+        System.out.println("Summary written to " + summaryFile);
+        return failed == 0 && allCompleted ? 0 : 1;
+    }
+
+    /**
+     * Totals and failed methods from one fork's testng-results.xml
+     */
+    private static class ForkResult {
+        private final int index;
+        private final Path forkDir;
+        private final int exitCode;
+        private final boolean hasResults;
+        private int total, passed, failed, skipped;
+        private final List<String> failures = new ArrayList<>();
+
+        private ForkResult(int index, Path forkDir, int exitCode, boolean hasResults) {
+            this.index = index;
+            this.forkDir = forkDir;
+            this.exitCode = exitCode;
+            this.hasResults = hasResults;
+        }
+
+        static ForkResult read(int index, Path forkDir, int exitCode) {
+            Path resultsFile = forkDir.resolve("testng").resolve("testng-results.xml");
+            if (!Files.exists(resultsFile)) {
+                return new ForkResult(index, forkDir, exitCode, false);
+            }
+            ForkResult result = new ForkResult(index, forkDir, exitCode, true);
+            try {
+                Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(resultsFile.toFile());
+                Element root = document.getDocumentElement();
+                result.total = intAttribute(root, "total");
+                result.passed = intAttribute(root, "passed");
+                result.failed = intAttribute(root, "failed");
+                result.skipped = intAttribute(root, "skipped");
+
+                NodeList methods = document.getElementsByTagName("test-method");
+                for (int i = 0; i < methods.getLength(); i++) {
+                    Element method = (Element) methods.item(i);
+                    if ("FAIL".equals(method.getAttribute("status"))) {
+                        String className = ((Element) method.getParentNode()).getAttribute("name");
+                        String description = method.getAttribute("description");
+                        result.failures.add(className + "." + method.getAttribute("name")
+                                + (description.isEmpty() ? "" : " (" + description + ")"));
+                    }
+                }
+            } catch (Exception e) {
+                System.err.println("Could not read " + resultsFile + ": " + e.getMessage());
+            }
+            return result;
+        }
+
+        private static int intAttribute(Element element, String name) {
+            String value = element.getAttribute(name);
+            return value.isEmpty() ? 0 : Integer.parseInt(value);
+        }
+
+        boolean completed() {
+            return hasResults;
+        }
+
+        String describe() {
+            if (!hasResults) {
+                return "no results (exit code " + exitCode + ", see console.log)";
+            }
+            return "total " + total + ", passed " + passed + ", failed " + failed + ", skipped " + skipped;
+        }
+    }
+}
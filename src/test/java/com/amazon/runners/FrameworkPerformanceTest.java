@@ -0,0 +1,122 @@
+package com.amazon.runners;
+
+import com.amazon.base.BaseTest;
+import com.amazon.base.BrowserPool;
+import com.amazon.base.ExtentReportBase;
+import com.amazon.utilities.BrowserReaper;
+import com.amazon.utilities.FrameworkConfig;
+import com.amazon.utilities.LatencyRecorder;
+import com.amazon.utilities.StandInShopServer;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Performance gate for the framework itself: runs the add-to-cart journey against the stand-in shop
+ * perf.iterations times (after perf.warmupIterations) and compares step, command and journey
+ * percentiles and per-journey allocation with the stored baseline (perf.baseline).
+ * Run with: mvn test -Pperf (record or update the baseline with -Dperf.updateBaseline=true)
+ */
+public class FrameworkPerformanceTest extends BaseTest {
+    private static final double MB = 1024.0 * 1024.0;
+    private static final String[] PRODUCTS = {"laptop", "mobile phone", "headphones", "keyboard"};
+
+    private final LatencyRecorder recorder = LatencyRecorder.shared();
+
+    @BeforeClass
+    public void requireStandInShop() {
+        if (!StandInShopServer.isEnabled()) {
+            throw new SkipException("The performance gate runs against the stand-in shop; set standInShop.enabled=true");
+        }
+        ExtentReportBase.initializeExtentReportIfNeeded();
+        BrowserPool.shared().warmUp();
+    }
+
+    @Test(description = "Add-to-cart journey, repeated for latency and allocation figures")
+    public void runJourneys() throws Exception {
+        FrameworkConfig config = FrameworkConfig.get();
+        int warmupIterations = Math.max(0, config.getInt("perf.warmupIterations", 3));
+        int iterations = Math.max(1, config.getInt("perf.iterations", 20));
+        for (int iteration = 0; iteration < warmupIterations + iterations; iteration++) {
+            if (iteration == warmupIterations) {
+                // Warmup figures include JIT compilation and first-use class loading
+                recorder.reset();
+            }
+            runJourney(PRODUCTS[iteration % PRODUCTS.length]);
+        }
+    }
+
+    private void runJourney(String product) throws Exception {
+        long allocatedBefore = LatencyRecorder.currentThreadAllocatedBytes();
+        long start = System.nanoTime();
+
+        recorder.time("step.setUp", () -> initializeDriver(null));
+        try {
+            new AddToCartJourney(recorder).run(getDriver(), getBaseURL(), product);
+        } finally {
+            recorder.time("step.tearDown", this::closeBrowser);
+        }
+
+        recorder.record("journey.total", (System.nanoTime() - start) / 1e6);
+        long allocatedAfter = LatencyRecorder.currentThreadAllocatedBytes();
+        if (allocatedBefore >= 0 && allocatedAfter >= 0) {
+            recorder.record("journey.allocatedMb", (allocatedAfter - allocatedBefore) / MB);
+        }
+    }
+
+    @Test(dependsOnMethods = "runJourneys", description = "Percentiles within perf.tolerance of the baseline")
+    public void latenciesWithinBaseline() throws Exception {
+        FrameworkConfig config = FrameworkConfig.get();
+        Path results = Paths.get(ExtentReportBase.getOutputDir(), "perf", "perf-results.json");
+        Path baseline = Paths.get(config.getProperty("perf.baseline", "src/test/resources/perf/perf-baseline.json"));
+        recorder.writeJson(results);
+        printSummary();
+
+        if (config.getBoolean("perf.updateBaseline", false)) {
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            Files.copy(results, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Performance baseline written to " + baseline);
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            // A gate that records its own baseline would pass whatever the figures are
+            Assert.fail("No performance baseline at " + baseline + " to compare " + results
+                    + " with; record one with -Dperf.updateBaseline=true");
+        }
+
+        List<String> percentiles = Arrays.asList(config.getProperty("perf.percentiles", "p50,p95").split("\\s*,\\s*"));
+        List<String> regressions = recorder.findRegressions(LatencyRecorder.readJson(baseline), percentiles,
+                config.getDouble("perf.tolerance", 0.25),
+                config.getDouble("perf.minRegressionMs", 20),
+                config.getDouble("perf.minRegressionMb", 5));
+        if (!regressions.isEmpty()) {
+            Assert.fail("Performance regressed against " + baseline + " (results in " + results + "):\n  "
+                    + String.join("\n  ", regressions));
+        }
+        System.out.println("No performance regression against " + baseline);
+    }
+
+    private void printSummary() {
+        System.out.printf("%n%-32s %6s %10s %10s %10s %10s%n", "Metric", "Count", "p50", "p95", "p99", "Max");
+        for (Map.Entry<String, Map<String, Double>> metric : recorder.summarize().entrySet()) {
+            Map<String, Double> statistics = metric.getValue();
+            System.out.printf("%-32s %6.0f %10.1f %10.1f %10.1f %10.1f%n", metric.getKey(), statistics.get("count"),
+                    statistics.get("p50"), statistics.get("p95"), statistics.get("p99"), statistics.get("max"));
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDownPool() {
+        BrowserPool.shared().shutdown();
+        BrowserReaper.shared().awaitIdle(30);
+    }
+}
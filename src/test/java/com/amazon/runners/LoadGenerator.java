@@ -0,0 +1,232 @@
+package com.amazon.runners;
+
+import com.amazon.base.BaseTest;
+import com.amazon.base.ExtentReportBase;
+import com.amazon.utilities.BrowserReaper;
+import com.amazon.utilities.FrameworkConfig;
+import com.amazon.utilities.LatencyRecorder;
+import com.amazon.utilities.StandInShopServer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the add-to-cart journey as a load test with many concurrent headless browsers, one virtual thread each
+ * load.model=closed: load.users users start evenly over load.rampUpSec and repeat the journey with
+ * load.thinkTimeMs between journeys. load.model=open: journeys arrive at a rate ramped up to
+ * load.arrivalRatePerSec, each in a new browser, at most load.maxConcurrent at a time.
+ * Only journeys started in the steady state (load.steadyStateSec after the ramp-up) are measured.
+ * The resource governor's cap defaults to the browsers the model needs (load.users, or load.maxConcurrent);
+ * a closed model with more users than an explicit governor.maxSessions is rejected, as the extra users
+ * would wait for a browser through the whole steady state.
+ * Run through the load Maven profile: mvn test -Pload -Dload.users=20
+ */
+public class LoadGenerator {
+    private static final String[] PRODUCTS = {"laptop", "mobile phone", "headphones", "keyboard"};
+
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger dropped = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger peakActive = new AtomicInteger();
+    private final AtomicLong journeyNumber = new AtomicLong();
+
+    private long rampUpEnd;
+    private long steadyStateEnd;
+
+    public static void main(String[] args) throws Exception {
+        System.exit(new LoadGenerator().run());
+    }
+
+    /**
+     * Run the configured workload, print and write the results
+     * Returns the process exit code: 0 if the error rate stayed within load.maxErrorRate
+     */
+    public int run() throws Exception {
+        FrameworkConfig config = FrameworkConfig.get();
+        String model = config.getProperty("load.model", "closed").trim().toLowerCase();
+        config = capSessions(config, model);
+        long rampUpMillis = Math.max(0, config.getLong("load.rampUpSec", 30)) * 1000;
+        long steadyStateMillis = Math.max(1, config.getLong("load.steadyStateSec", 120)) * 1000;
+        long start = System.currentTimeMillis();
+        rampUpEnd = start + rampUpMillis;
+        steadyStateEnd = rampUpEnd + steadyStateMillis;
+
+        // Start the site (and its port) before the first user needs it
+        String baseUrl = new BaseTest().getBaseURL();
+        System.out.println("Load test (" + model + " model) against " + baseUrl + ": ramp-up " + rampUpMillis / 1000
+                + " s, steady state " + steadyStateMillis / 1000 + " s");
+
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            switch (model) {
+                case "closed":
+                    runClosedModel(config, users, baseUrl, rampUpMillis);
+                    break;
+                case "open":
+                    runOpenModel(config, users, baseUrl, start, rampUpMillis);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown load.model '" + model + "', expected closed or open");
+            }
+            // Closing the executor waits for journeys still running
+        }
+        BrowserReaper.shared().awaitIdle(60);
+        if (StandInShopServer.isEnabled()) {
+            StandInShopServer.shared().stop();
+        }
+        return report(config, steadyStateMillis);
+    }
+
+    /**
+     * Default governor.maxSessions to the browsers the model needs; reject a closed model that can't start all users
+     * Returns the configuration to run with
+     */
+    private static FrameworkConfig capSessions(FrameworkConfig config, String model) {
+        int needed = "open".equals(model)
+                ? Math.max(1, config.getInt("load.maxConcurrent", 50)) : Math.max(1, config.getInt("load.users", 10));
+        String configured = config.getProperty("governor.maxSessions");
+        if (configured == null) {
+            // Read by the governor when it is first used, which is after this point
+            System.setProperty("governor.maxSessions", String.valueOf(needed));
+            return FrameworkConfig.reload();
+        }
+        if ("closed".equals(model) && config.getInt("governor.maxSessions", needed) < needed) {
+            throw new IllegalArgumentException("load.users=" + needed + " exceeds governor.maxSessions=" + configured
+                    + "; users above the cap would wait the whole steady state for a browser");
+        }
+        return config;
+    }
+
+    /**
+     * Fixed number of users, each looping journey and think time until the steady state ends
+     */
+    private void runClosedModel(FrameworkConfig config, ExecutorService users, String baseUrl, long rampUpMillis) {
+        int userCount = Math.max(1, config.getInt("load.users", 10));
+        long thinkTimeMillis = Math.max(0, config.getLong("load.thinkTimeMs", 1000));
+        for (int user = 0; user < userCount; user++) {
+            long startDelay = rampUpMillis * user / userCount;
+            users.submit(() -> {
+                BaseTest session = new BaseTest();
+                try {
+                    Thread.sleep(startDelay);
+                    while (System.currentTimeMillis() < steadyStateEnd) {
+                        runJourney(session, baseUrl);
+                        Thread.sleep(thinkTimeMillis);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    BaseTest.quitDriver();
+                }
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Journeys arriving at a fixed rate whatever the response times, each in a new browser
+     * Arrivals finding load.maxConcurrent journeys running are dropped and counted, not queued
+     */
+    private void runOpenModel(FrameworkConfig config, ExecutorService users, String baseUrl, long start,
+                              long rampUpMillis) throws InterruptedException {
+        double targetRate = config.getDouble("load.arrivalRatePerSec", 1.0);
+        if (targetRate <= 0) {
+            throw new IllegalArgumentException("load.arrivalRatePerSec must be positive, was " + targetRate);
+        }
+        Semaphore slots = new Semaphore(Math.max(1, config.getInt("load.maxConcurrent", 50)));
+        long now;
+        while ((now = System.currentTimeMillis()) < steadyStateEnd) {
+            // Rate ramps linearly from a tenth of the target to the target over the ramp-up
+            double rate = now >= rampUpEnd || rampUpMillis == 0
+                    ? targetRate : targetRate * Math.max(0.1, (double) (now - start) / rampUpMillis);
+            if (slots.tryAcquire()) {
+                users.submit(() -> {
+                    try {
+                        runJourney(new BaseTest(), baseUrl);
+                    } finally {
+                        BaseTest.quitDriver();
+                        slots.release();
+                    }
+                    return null;
+                });
+            } else if (now >= rampUpEnd) {
+                dropped.incrementAndGet();
+            }
+            Thread.sleep((long) (1000 / rate));
+        }
+    }
+
+    /**
+     * One journey in the calling thread's browser (started if needed); measured if it starts in the steady state
+     * Cookies are cleared afterwards so a closed-model user's next journey starts with an empty cart
+     */
+    private void runJourney(BaseTest session, String baseUrl) {
+        long start = System.currentTimeMillis();
+        boolean measured = start >= rampUpEnd && start < steadyStateEnd;
+        LatencyRecorder journeyRecorder = measured ? recorder : new LatencyRecorder();
+        String product = PRODUCTS[(int) (journeyNumber.getAndIncrement() % PRODUCTS.length)];
+        boolean running = false;
+        try {
+            journeyRecorder.time("step.setUp", () -> session.initializeDriver(null));
+            // Concurrent means holding a browser; users still waiting for a session slot don't count
+            running = true;
+            peakActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            new AddToCartJourney(journeyRecorder).run(BaseTest.getDriver(), baseUrl, product);
+            BaseTest.getDriver().manage().deleteAllCookies();
+            if (measured) {
+                recorder.record("journey.total", System.currentTimeMillis() - start);
+                completed.incrementAndGet();
+            }
+        } catch (Exception | AssertionError e) {
+            if (measured) {
+                failed.incrementAndGet();
+            }
+            System.err.println("Journey failed: " + String.valueOf(e.getMessage()).split("\n")[0]);
+            // The browser may be left on an unexpected page; the next journey starts a fresh one
+            BaseTest.quitDriver();
+        } finally {
+            if (running) {
+                active.decrementAndGet();
+            }
+        }
+    }
+
+    private int report(FrameworkConfig config, long steadyStateMillis) throws Exception {
+        int journeys = completed.get() + failed.get();
+        double throughput = completed.get() / (steadyStateMillis / 1000.0);
+        double errorRate = journeys == 0 ? 1.0 : (double) failed.get() / journeys;
+
+        System.out.printf("%nSteady state: %d journeys completed, %d failed (%.1f%%), %d arrivals dropped, "
+                        + "%.2f journeys/s, peak %d concurrent%n",
+                completed.get(), failed.get(), errorRate * 100, dropped.get(), throughput, peakActive.get());
+        System.out.printf("%-24s %6s %10s %10s %10s %10s %10s%n", "Step", "Count", "p50", "p90", "p95", "p99", "Max");
+        for (Map.Entry<String, Map<String, Double>> metric : recorder.summarize().entrySet()) {
+            Map<String, Double> statistics = metric.getValue();
+            System.out.printf("%-24s %6.0f %10.1f %10.1f %10.1f %10.1f %10.1f%n", metric.getKey(), statistics.get("count"),
+                    statistics.get("p50"), statistics.get("p90"), statistics.get("p95"), statistics.get("p99"),
+                    statistics.get("max"));
+        }
+
+        recorder.record("load.throughputPerSec", throughput);
+        recorder.record("load.errorRate", errorRate);
+        recorder.record("load.peakConcurrent", peakActive.get());
+        recorder.record("load.dropped", dropped.get());
+        Path results = Paths.get(ExtentReportBase.getOutputDir(), "load", "load-results.json");
+        recorder.writeJson(results);
+        System.out.println("Load results written to " + results);
+
+        double maxErrorRate = config.getDouble("load.maxErrorRate", 0.05);
+        if (errorRate > maxErrorRate) {
+            System.err.printf("Error rate %.1f%% above load.maxErrorRate %.1f%%%n", errorRate * 100, maxErrorRate * 100);
+            return 1;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,36 @@
+package com.amazon.runners;
+
+import org.testng.IRetryAnalyzer;
+import org.testng.ITestResult;
+
+/**
+ * Retries a failed TestNG method in the same JVM up to rerun.maxAttempts times
+ * TestNG keeps one analyzer per method and data provider row, so each row has its own count
+ */
+public class RerunAnalyzer implements IRetryAnalyzer {
+    private int reruns;
+
+    @Override
+    public boolean retry(ITestResult result) {
+        if (!hasRerunsLeft()) {
+            return false;
+        }
+        reruns++;
+        RerunListener.pauseBeforeRerun(RerunListener.describe(result), reruns, RerunListener.getMaxReruns());
+        return true;
+    }
+
+    /**
+     * Check if a failure of the current attempt will be rerun
+     */
+    public boolean hasRerunsLeft() {
+        return reruns < RerunListener.getMaxReruns();
+    }
+
+    /**
+     * Get number of reruns so far
+     */
+    public int getReruns() {
+        return reruns;
+    }
+}
@@ -0,0 +1,122 @@
+package com.amazon.runners;
+
+import com.amazon.base.ExtentReportBase;
+import com.amazon.utilities.FrameworkConfig;
+import org.testng.*;
+import org.testng.annotations.ITestAnnotation;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warm reruns of failed tests in the same JVM, with a flaky versus hard-failed summary
+ * TestNG methods get a RerunAnalyzer; Cucumber scenarios are deferred to their runner's rerun
+ * phase (see ScenarioRerunQueue). rerun.maxAttempts=0 turns reruns off.
+ */
+public class RerunListener implements IAnnotationTransformer, ITestListener, ISuiteListener {
+    private static final Queue<String> flaky = new ConcurrentLinkedQueue<>();
+    private static final Queue<String> hardFailed = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Get number of reruns after the first failure (rerun.maxAttempts, default 1)
+     */
+    public static int getMaxReruns() {
+        return Math.max(0, FrameworkConfig.get().getInt("rerun.maxAttempts", 1));
+    }
+
+    /**
+     * Log the rerun and wait rerun.delayMs so a transient outage has time to clear
+     */
+    static void pauseBeforeRerun(String name, int rerun, int maxReruns) {
+        System.out.println("🔁 Rerun " + rerun + "/" + maxReruns + ": " + name);
+        long delayMillis = FrameworkConfig.get().getLong("rerun.delayMs", 2000);
+        if (delayMillis > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Record test that failed at first and passed on a rerun
+     */
+    static void recordFlaky(String name, int attempts) {
+        flaky.add(name + " (passed on attempt " + attempts + ")");
+    }
+
+    /**
+     * Record test that failed on every attempt
+     */
+    static void recordHardFailure(String name, int attempts, Throwable failure) {
+        hardFailed.add(name + " (failed " + attempts + " attempts: " + failure.getMessage() + ")");
+    }
+
+    static String describe(ITestResult result) {
+        String name = result.getMethod().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName();
+        return result.getParameters().length > 0 ? name + Arrays.toString(result.getParameters()) : name;
+    }
+
+    /**
+     * Attach a RerunAnalyzer to plain TestNG methods; Cucumber methods rerun through their runner
+     */
+    @Override
+    public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor, Method testMethod) {
+        if (testMethod != null && !Arrays.asList(annotation.getGroups()).contains("cucumber")) {
+            annotation.setRetryAnalyzer(RerunAnalyzer.class);
+        }
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        RerunAnalyzer analyzer = analyzerOf(result);
+        if (analyzer != null && analyzer.getReruns() > 0) {
+            recordFlaky(describe(result), analyzer.getReruns() + 1);
+        }
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        RerunAnalyzer analyzer = analyzerOf(result);
+        if (analyzer != null && analyzer.getReruns() > 0) {
+            recordHardFailure(describe(result), analyzer.getReruns() + 1, result.getThrowable());
+        }
+    }
+
+    private static RerunAnalyzer analyzerOf(ITestResult result) {
+        IRetryAnalyzer analyzer = result.getMethod().getRetryAnalyzer(result);
+        return analyzer instanceof RerunAnalyzer ? (RerunAnalyzer) analyzer : null;
+    }
+
+    /**
+     * Print flaky and hard-failed tests and write them to rerun-summary.txt under output.dir
+     */
+    @Override
+    public void onFinish(ISuite suite) {
+        if (flaky.isEmpty() && hardFailed.isEmpty()) {
+            return;
+        }
+        List<String> lines = new ArrayList<>();
+        lines.add("Rerun summary for '" + suite.getName() + "': " + flaky.size() + " flaky, "
+                + hardFailed.size() + " hard-failed");
+        flaky.forEach(name -> lines.add("  FLAKY  " + name));
+        hardFailed.forEach(name -> lines.add("  FAILED " + name));
+
+        System.out.println("\n🔁 " + String.join(System.lineSeparator(), lines));
+        Path summaryFile = Paths.get(ExtentReportBase.getOutputDir(), "rerun-summary.txt");
+        try {
+            Files.createDirectories(summaryFile.getParent());
+            Files.write(summaryFile, lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.err.println("Could not write " + summaryFile + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.amazon.runners;
+
+import com.amazon.base.BaseTest;
+import com.amazon.stepdefinitions.ScenarioContext;
+import org.testng.SkipException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Defers failed Cucumber scenarios to a rerun phase at the end of the runner
+ * The first failure is reported as skipped; the rerun method then retries the scenario up to
+ * rerun.maxAttempts times in this JVM. A failure's browser is closed like any other, so deferred
+ * scenarios hold no session slot until the rerun phase; a rerun starts a fresh browser and keeps it
+ * open through its attempts.
+ * Scenarios passing on a rerun are reported as flaky, the rest as hard failures (see RerunListener).
+ */
+public class ScenarioRerunQueue {
+    private final ScenarioInvocation invocation;
+    private final Queue<Object[]> deferred = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Runs one scenario row of the runner's data provider
+     */
+    public interface ScenarioInvocation {
+        void run(Object[] row);
+    }
+
+    public ScenarioRerunQueue(ScenarioInvocation invocation) {
+        this.invocation = invocation;
+    }
+
+    /**
+     * Run scenario; on failure queue it for the rerun phase instead of failing, if reruns are enabled
+     */
+    public void runOrDefer(Object... row) {
+        try {
+            invocation.run(row);
+        } catch (SkipException e) {
+            throw e;
+        } catch (RuntimeException | AssertionError e) {
+            if (RerunListener.getMaxReruns() <= 0) {
+                throw e;
+            }
+            deferred.add(row);
+            throw new SkipException("Failed, deferred to rerun phase: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Take all deferred scenarios, for the rerun method's data provider
+     */
+    public Object[][] drain() {
+        List<Object[]> rows = new ArrayList<>();
+        Object[] row;
+        while ((row = deferred.poll()) != null) {
+            rows.add(row);
+        }
+        return rows.toArray(new Object[0][]);
+    }
+
+    /**
+     * Rerun deferred scenario until it passes or rerun.maxAttempts is used up
+     */
+    public void rerun(Object... row) {
+        String name = describe(row);
+        int maxReruns = RerunListener.getMaxReruns();
+        ScenarioContext.setKeepBrowser(true);
+        try {
+            for (int rerun = 1; ; rerun++) {
+                RerunListener.pauseBeforeRerun(name, rerun, maxReruns);
+                try {
+                    invocation.run(row);
+                    RerunListener.recordFlaky(name, rerun + 1);
+                    return;
+                } catch (SkipException e) {
+                    throw e;
+                } catch (RuntimeException | AssertionError e) {
+                    if (rerun >= maxReruns) {
+                        RerunListener.recordHardFailure(name, rerun + 1, e);
+                        throw e;
+                    }
+                }
+            }
+        } finally {
+            ScenarioContext.setKeepBrowser(false);
+            BaseTest.quitDriver();
+        }
+    }
+
+    private static String describe(Object[] row) {
+        String name = String.valueOf(row[0]) + " (" + DurationSchedulingListener.scenarioKey(row) + ")";
+        return row.length > 2 ? name + " " + row[2] : name;
+    }
+}
@@ -0,0 +1,55 @@
+package com.amazon.runners;
+
+import com.amazon.base.ExtentReportBase;
+import com.amazon.utilities.FrameworkConfig;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import java.util.List;
+
+/**
+ * Suite listener that applies configuration before TestNG starts the suite
+ * dataproviderthreadcount sets how many Cucumber scenarios and data-driven invocations run at once;
+ * each test's cucumber.report parameter becomes an html plugin under output.dir, so forked JVMs
+ * never write to the same report file. The Cucumber runners apply the same settings through
+ * {@link #configure(XmlTest, String)} when started without testng.xml, e.g. mvn test -Dtest=CucumberRunnerTest
+ */
+public class SuiteConfigurationListener implements IAlterSuiteListener {
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        for (XmlSuite suite : suites) {
+            applyThreadCount(suite);
+            for (XmlTest test : suite.getTests()) {
+                String report = test.getParameter("cucumber.report");
+                if (report != null) {
+                    applyReport(test, report);
+                }
+            }
+        }
+    }
+
+    /**
+     * Apply dataproviderthreadcount and an html report under output.dir (the test's cucumber.report,
+     * else defaultReport) to a Cucumber runner's test; does nothing the suite listener already did
+     */
+    public static void configure(XmlTest test, String defaultReport) {
+        applyThreadCount(test.getSuite());
+        String report = test.getParameter("cucumber.report");
+        applyReport(test, report != null ? report : defaultReport);
+    }
+
+    private static void applyThreadCount(XmlSuite suite) {
+        int threadCount = Math.max(1, FrameworkConfig.get().getInt("dataproviderthreadcount", suite.getDataProviderThreadCount()));
+        if (suite.getDataProviderThreadCount() != threadCount) {
+            suite.setDataProviderThreadCount(threadCount);
+            System.out.println("Suite '" + suite.getName() + "' data provider threads: " + threadCount);
+        }
+    }
+
+    private static void applyReport(XmlTest test, String report) {
+        if (test.getParameter("cucumber.plugin") == null) {
+            test.addParameter("cucumber.plugin", "html:" + ExtentReportBase.getOutputDir() + "/CucumberReports/" + report);
+        }
+    }
+}
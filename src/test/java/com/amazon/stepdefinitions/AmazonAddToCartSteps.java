@@ -5,7 +5,6 @@ import com.amazon.base.ExtentReportBase;
 import com.amazon.pages.AmazonHomePage;
 import com.amazon.pages.AmazonSearchResultsPage;
 import com.amazon.pages.AmazonProductDetailsPage;
-import com.amazon.utilities.PropertyUtility;
 import com.amazon.utilities.BrowserInteractionUtility;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.When;
@@ -24,18 +23,17 @@ public class AmazonAddToCartSteps extends BaseTest {
     private AmazonSearchResultsPage searchResultsPage;
     private AmazonProductDetailsPage productDetailsPage;
     private BrowserInteractionUtility browserInteraction;
-    private PropertyUtility propertyUtility;
 
     /**
-     * Initialize page objects
-     * Called automatically by Hooks class
+     * Initialize page objects with the driver Hooks started on this thread
+     * Called automatically by Cucumber for each scenario
      */
     public AmazonAddToCartSteps() {
         try {
-            this.homePage = new AmazonHomePage(driver);
-            this.searchResultsPage = new AmazonSearchResultsPage(driver);
-            this.productDetailsPage = new AmazonProductDetailsPage(driver);
-            this.browserInteraction = new BrowserInteractionUtility(driver);
+            this.homePage = new AmazonHomePage(getDriver());
+            this.searchResultsPage = new AmazonSearchResultsPage(getDriver());
+            this.productDetailsPage = new AmazonProductDetailsPage(getDriver());
+            this.browserInteraction = ScenarioContext.getBrowserInteraction();
         } catch (Exception e) {
             System.out.println("Note: Page objects will be initialized when driver is ready");
         }
@@ -45,11 +43,9 @@ public class AmazonAddToCartSteps extends BaseTest {
     public void user_is_on_amazon_home_page() throws IOException {
         try {
             // Re-initialize page objects with driver
-            homePage = new AmazonHomePage(driver);
-            browserInteraction = new BrowserInteractionUtility(driver);
-            propertyUtility = new PropertyUtility("src/test/resources/config/config.properties");
-            
-            String baseURL = propertyUtility.getProperty("baseURL", "https://www.amazon.com");
+            homePage = new AmazonHomePage(getDriver());
+            browserInteraction = ScenarioContext.getBrowserInteraction();
+            String baseURL = getBaseURL();
             homePage.navigateToAmazon(baseURL);
             
             ExtentReportBase.logInfo("Navigated to Amazon home page: " + baseURL);
@@ -79,6 +75,11 @@ public class AmazonAddToCartSteps extends BaseTest {
         }
     }
 
+    @When("User searches for the product from test data")
+    public void user_searches_for_product_from_test_data() {
+        user_searches_for_product(ScenarioContext.getTestData("productName"));
+    }
+
     @Then("Search results should be displayed")
     public void search_results_should_be_displayed() {
         try {
@@ -106,7 +107,7 @@ public class AmazonAddToCartSteps extends BaseTest {
             browserInteraction.waitForSeconds(2);
             
             // Re-initialize search results page
-            searchResultsPage = new AmazonSearchResultsPage(driver);
+            searchResultsPage = new AmazonSearchResultsPage(getDriver());
             
             // Try multiple locator strategies for better reliability
             By productLocator = By.xpath("(//h2//a)[1]");
@@ -134,7 +135,7 @@ public class AmazonAddToCartSteps extends BaseTest {
             ExtentReportBase.logInfo("Adding product to cart");
             
             // Re-initialize product details page
-            productDetailsPage = new AmazonProductDetailsPage(driver);
+            productDetailsPage = new AmazonProductDetailsPage(getDriver());
             
             productDetailsPage.addToCart();
             browserInteraction.waitForSeconds(2);
@@ -178,7 +179,7 @@ public class AmazonAddToCartSteps extends BaseTest {
         try {
             ExtentReportBase.logInfo("Verifying product title is displayed");
             
-            productDetailsPage = new AmazonProductDetailsPage(driver);
+            productDetailsPage = new AmazonProductDetailsPage(getDriver());
             String productTitle = productDetailsPage.getProductTitle();
             
             Assert.assertNotNull(productTitle, "Product title is null");
@@ -200,7 +201,7 @@ public class AmazonAddToCartSteps extends BaseTest {
         try {
             ExtentReportBase.logInfo("Setting product quantity to: " + quantity);
             
-            productDetailsPage = new AmazonProductDetailsPage(driver);
+            productDetailsPage = new AmazonProductDetailsPage(getDriver());
             productDetailsPage.setQuantity(quantity);
             
             ExtentReportBase.logPass("Quantity set to: " + quantity);
@@ -211,12 +212,22 @@ public class AmazonAddToCartSteps extends BaseTest {
         }
     }
 
+    @And("User sets quantity from test data")
+    public void user_sets_quantity_from_test_data() {
+        String quantity = ScenarioContext.getTestData("quantity");
+        if (quantity == null || quantity.equals("1")) {
+            ExtentReportBase.logInfo("Keeping default quantity");
+            return;
+        }
+        user_sets_quantity(quantity);
+    }
+
     @And("Wait for cart confirmation")
     public void wait_for_cart_confirmation() {
         try {
             ExtentReportBase.logInfo("Waiting for cart confirmation");
             
-            productDetailsPage = new AmazonProductDetailsPage(driver);
+            productDetailsPage = new AmazonProductDetailsPage(getDriver());
             productDetailsPage.waitForCartConfirmation();
             
             ExtentReportBase.logPass("Cart confirmation received");
@@ -2,28 +2,86 @@ package com.amazon.stepdefinitions;
 
 import com.amazon.base.ExtentReportBase;
 import com.amazon.utilities.BrowserInteractionUtility;
+import com.amazon.utilities.BrowserReaper;
+import com.amazon.utilities.DurationHistory;
+import com.amazon.utilities.FlightRecorderEvents;
+import com.amazon.utilities.PerformanceBudget;
+import com.amazon.utilities.RunTimeline;
+import com.amazon.utilities.StepTracer;
+import com.amazon.utilities.StepWatchdog;
+import com.amazon.utilities.TrafficRecorder;
+import com.amazon.utilities.WebVitalsCollector;
 import io.cucumber.java.Before;
 import io.cucumber.java.After;
+import io.cucumber.java.BeforeAll;
+import io.cucumber.java.AfterAll;
 import io.cucumber.java.BeforeStep;
 import io.cucumber.java.AfterStep;
 import io.cucumber.java.Scenario;
+import io.cucumber.java.Status;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.WebDriver;
+import org.testng.SkipException;
 import com.amazon.base.BaseTest;
+import com.amazon.base.BrowserPool;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Cucumber Hooks for test setup, teardown, and reporting
  * Handles browser initialization, reporting, screenshots, and logging
  */
 public class Hooks extends BaseTest {
-    private static BrowserInteractionUtility browserInteraction;
+    private BrowserInteractionUtility browserInteraction;
     private WebDriver driver;
     private Scenario scenario;
+    private String scenarioName;
+    private long scenarioStartNanos;
+    private int stepNumber;
+    private FlightRecorderEvents.ScenarioEvent scenarioEvent;
+    private FlightRecorderEvents.StepEvent stepEvent;
+    private RunTimeline.Span scenarioSpan;
+    private RunTimeline.Span stepSpan;
     private static final DateTimeFormatter dateFormatter = 
         DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final LongAdder totalScenarioNanos = new LongAdder();
+    private static final AtomicInteger scenarioCount = new AtomicInteger();
+    private static long runStartNanos;
+
+    /**
+     * BeforeAll Hook - Runs once before the scenarios of a runner
+     * Starts the run clock used for the parallel speedup summary and warms up browsers
+     */
+    @BeforeAll
+    public static void beforeAll() {
+        runStartNanos = System.nanoTime();
+        totalScenarioNanos.reset();
+        scenarioCount.set(0);
+        ExtentReportBase.initializeExtentReportIfNeeded();
+        // Start browsers in the background so the first scenarios don't wait for browser start-up
+        BrowserPool.shared().warmUp();
+    }
+
+    /**
+     * AfterAll Hook - Runs once after the scenarios of a runner
+     * Compares summed scenario time with wall time to show the speedup from parallel execution
+     */
+    @AfterAll
+    public static void afterAll() {
+        BrowserReaper.shared().printSummary();
+        TrafficRecorder.saveAndPrintSummary();
+        WebVitalsCollector.export();
+        RunTimeline.export();
+        double wallSeconds = (System.nanoTime() - runStartNanos) / 1e9;
+        double scenarioSeconds = totalScenarioNanos.sum() / 1e9;
+        System.out.printf("%n⏱️  %d scenarios: %.1f s of scenario time in %.1f s wall time (speedup x%.2f)%n",
+            scenarioCount.get(), scenarioSeconds, wallSeconds, wallSeconds > 0 ? scenarioSeconds / wallSeconds : 0);
+    }
 
     /**
      * Before Hook - Runs before each scenario
@@ -32,35 +90,55 @@ public class Hooks extends BaseTest {
     @Before
     public void setUp(Scenario scenario) {
         this.scenario = scenario;
+        // Data-driven runs repeat one scenario per record, so their name carries the record key
+        this.scenarioName = ScenarioContext.displayName(scenario.getName(), ScenarioContext.getTestData());
+        this.scenarioStartNanos = System.nanoTime();
+        // Flight recorder timeline of the scenario, from before browser start to after it is closed
+        scenarioEvent = new FlightRecorderEvents.ScenarioEvent();
+        scenarioEvent.begin();
+        scenarioSpan = RunTimeline.begin("scenario", scenarioName);
         try {
-            // Initialize WebDriver
+            // Initialize WebDriver (one per thread, so parallel scenarios get their own browser)
             initializeDriver(null);
-            this.driver = BaseTest.driver;
+            this.driver = getDriver();
+            // Scenario time starts once the browser is there, so waiting for a session slot doesn't count as work
+            this.scenarioStartNanos = System.nanoTime();
             
-            // Initialize BrowserInteractionUtility
+            // Initialize BrowserInteractionUtility and share it with step definitions on this thread
             browserInteraction = new BrowserInteractionUtility(driver);
+            ScenarioContext.start(scenario, browserInteraction);
+            
+            // Bound how long the scenario and each of its steps may take (see StepWatchdog)
+            stepNumber = 0;
+            StepWatchdog.startScenario(scenarioName, driver, getDriverServicePort());
             
-            // Initialize Extent Reports
-            ExtentReportBase.initializeExtentReport();
+            // Initialize Extent Reports once; parallel scenarios share one report
+            ExtentReportBase.initializeExtentReportIfNeeded();
             
             // Create test node in report
             ExtentReportBase.createTest(
-                scenario.getName(), 
-                "Scenario: " + scenario.getName()
+                scenarioName, 
+                "Scenario: " + scenarioName
             );
             
             // Log scenario start
             ExtentReportBase.logInfo(
-                "Scenario Started: " + scenario.getName() + 
+                "Scenario Started: " + scenarioName + 
                 " at " + LocalDateTime.now().format(dateFormatter)
             );
             
             System.out.println("\n" + "=".repeat(80));
-            System.out.println("🚀 SCENARIO START: " + scenario.getName());
+            System.out.println("🚀 SCENARIO START: " + scenarioName);
             System.out.println("🏷️  Tags: " + scenario.getSourceTagNames());
             System.out.println("⏰ Time: " + LocalDateTime.now().format(dateFormatter));
             System.out.println("=".repeat(80) + "\n");
             
+        } catch (SkipException e) {
+            // Site under test is down (circuit breaker open): skip instead of waiting out page loads
+            System.out.println("⏭️  SCENARIO SKIPPED: " + scenarioName + " - " + e.getMessage());
+            ExtentReportBase.createTest(scenarioName, "Scenario: " + scenarioName);
+            ExtentReportBase.logSkip(e.getMessage());
+            throw e;
         } catch (Exception e) {
             System.err.println("Error in setUp hook: " + e.getMessage());
             e.printStackTrace();
@@ -74,9 +152,15 @@ public class Hooks extends BaseTest {
      */
     @BeforeStep
     public void beforeStep(Scenario scenario) {
+        StepWatchdog.startStep("step " + (++stepNumber) + " of " + scenarioName);
+        // Browser trace of the step, kept only if the step turns out slow (trace.enabled)
+        StepTracer.startStep(driver);
+        stepEvent = new FlightRecorderEvents.StepEvent();
+        stepEvent.begin();
+        stepSpan = RunTimeline.begin("step", "step " + stepNumber);
         try {
-            ExtentReportBase.logInfo("Step: " + scenario.getName());
-            System.out.println("► Step executing: " + scenario.getName());
+            ExtentReportBase.logInfo("Step: " + scenarioName);
+            System.out.println("► Step executing: " + scenarioName);
         } catch (Exception e) {
             System.err.println("Error in beforeStep hook: " + e.getMessage());
         }
@@ -91,12 +175,32 @@ public class Hooks extends BaseTest {
         try {
             // Check if step failed
             if (scenario.isFailed()) {
-                takeScreenshot("Step_Failed_" + scenario.getName());
-                ExtentReportBase.logFail("Step failed: " + scenario.getName());
+                takeScreenshot("Step_Failed_" + scenarioName);
+                ExtentReportBase.logFail("Step failed: " + scenarioName);
+            }
+            // Page loads measured during this step (webVitals.enabled)
+            for (String webVitals : WebVitalsCollector.drainPendingSummaries()) {
+                ExtentReportBase.logInfo(webVitals);
             }
         } catch (Exception e) {
             System.err.println("Error in afterStep hook: " + e.getMessage());
         }
+        if (stepEvent != null && stepEvent.shouldCommit()) {
+            stepEvent.scenario = scenarioName;
+            stepEvent.step = stepNumber;
+            stepEvent.failed = scenario.isFailed();
+            stepEvent.commit();
+        }
+        if (stepSpan != null) {
+            stepSpan.arg("failed", scenario.isFailed()).close();
+        }
+        Path trace = StepTracer.endStep(scenarioName + " step " + stepNumber);
+        if (trace != null) {
+            System.out.println("🐢 Slow step " + stepNumber + ", browser trace saved: " + trace);
+            ExtentReportBase.logWarning("Slow step " + stepNumber + ", browser trace: " + trace.toAbsolutePath());
+        }
+        // Fails the scenario if the watchdog fired during this step
+        StepWatchdog.endStep();
     }
 
     /**
@@ -105,29 +209,50 @@ public class Hooks extends BaseTest {
      */
     @After
     public void tearDown(Scenario scenario) {
+        String timeoutReason = StepWatchdog.endScenario();
         try {
+            if (scenario.getStatus() == Status.SKIPPED && driver == null) {
+                // Skipped before a browser was started (circuit breaker open): nothing to report or close
+                return;
+            }
+            List<String> budgetViolations = PerformanceBudget.drainViolations();
             System.out.println("\n" + "=".repeat(80));
-            System.out.println("✓ SCENARIO END: " + scenario.getName());
-            System.out.println("📊 Status: " + (scenario.isFailed() ? "FAILED ❌" : "PASSED ✅"));
+            System.out.println("✓ SCENARIO END: " + scenarioName);
+            System.out.println("📊 Status: " + (scenario.isFailed() ? "FAILED ❌" : "PASSED ✅")
+                + (budgetViolations.isEmpty() ? "" : " (performance budget not met)"));
+            for (String violation : budgetViolations) {
+                System.out.println("⏱️  " + violation);
+            }
             System.out.println("⏰ Time: " + LocalDateTime.now().format(dateFormatter));
             
+            if (timeoutReason != null) {
+                System.out.println("⏳ Watchdog: " + timeoutReason);
+                ExtentReportBase.logFail("Watchdog: " + timeoutReason);
+            }
+            
             // Take final screenshot
             if (!scenario.isFailed()) {
-                takeScreenshot("Scenario_Passed_" + scenario.getName());
+                takeScreenshot("Scenario_Passed_" + scenarioName);
                 ExtentReportBase.logPass("Scenario passed successfully");
             } else {
-                takeScreenshot("Scenario_Failed_" + scenario.getName());
+                takeScreenshot("Scenario_Failed_" + scenarioName);
                 ExtentReportBase.logFail("Scenario failed");
             }
             
             // Log scenario completion
             ExtentReportBase.logInfo(
-                "Scenario Completed: " + scenario.getName() + 
+                "Scenario Completed: " + scenarioName + 
                 " | Status: " + (scenario.isFailed() ? "FAILED" : "PASSED")
             );
             
-            // Clear cookies for next test
-            if (driver != null) {
+            System.out.println("=".repeat(80) + "\n");
+            
+            // Close browser in the background (its profile and cookies go with it), unless the scenario
+            // failed and its rerun attempts continue in it; a session the watchdog killed can't be reused
+            if (timeoutReason != null || !scenario.isFailed() || !ScenarioContext.isKeepBrowser()) {
+                closeBrowser();
+            } else if (driver != null && browserInteraction != null) {
+                // Clear cookies for the rerun
                 try {
                     browserInteraction.deleteAllCookies();
                 } catch (Exception e) {
@@ -135,17 +260,32 @@ public class Hooks extends BaseTest {
                 }
             }
             
-            System.out.println("=".repeat(80) + "\n");
-            
-            // Close browser
-            closeBrowser();
-            
             // Flush and generate report
             ExtentReportBase.flushReport();
             
         } catch (Exception e) {
             System.err.println("Error in tearDown hook: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            long scenarioNanos = System.nanoTime() - scenarioStartNanos;
+            // Data-driven runs repeat one scenario per record, so only plain scenarios feed the scheduler;
+            // skipped scenarios didn't run, so their time says nothing about the next run
+            if (ScenarioContext.getTestData() == null && scenario.getStatus() != Status.SKIPPED) {
+                DurationHistory.shared().record(
+                    DurationHistory.scenarioKey(scenario.getUri(), scenario.getLine()), scenarioNanos / 1_000_000);
+            }
+            ScenarioContext.finish();
+            if (scenarioEvent != null && scenarioEvent.shouldCommit()) {
+                scenarioEvent.scenario = scenarioName;
+                scenarioEvent.tags = String.join(" ", scenario.getSourceTagNames());
+                scenarioEvent.status = scenario.getStatus().name();
+                scenarioEvent.commit();
+            }
+            if (scenarioSpan != null) {
+                scenarioSpan.arg("status", scenario.getStatus().name()).close();
+            }
+            totalScenarioNanos.add(scenarioNanos);
+            scenarioCount.incrementAndGet();
         }
     }
 
@@ -154,7 +294,7 @@ public class Hooks extends BaseTest {
      * Useful for debugging and reporting
      */
     private void takeScreenshot(String fileName) {
-        try {
+        try (RunTimeline.Span span = RunTimeline.begin("screenshot", "screenshot")) {
             if (driver != null) {
                 TakesScreenshot screenshot = (TakesScreenshot) driver;
                 byte[] screenshotData = screenshot.getScreenshotAs(OutputType.BYTES);
@@ -170,11 +310,11 @@ public class Hooks extends BaseTest {
     }
 
     /**
-     * Get BrowserInteractionUtility instance
+     * Get BrowserInteractionUtility instance of the scenario running on this thread
      * Can be used by step definitions if needed
      */
     public static BrowserInteractionUtility getBrowserInteraction() {
-        return browserInteraction;
+        return ScenarioContext.getBrowserInteraction();
     }
 
     /**
@@ -0,0 +1,83 @@
+package com.amazon.stepdefinitions;
+
+import com.amazon.base.BaseTest;
+import com.amazon.base.ExtentReportBase;
+import com.amazon.pages.AmazonHomePage;
+import com.amazon.pages.AmazonProductDetailsPage;
+import com.amazon.pages.AmazonSearchResultsPage;
+import com.amazon.utilities.PerformanceBudget;
+import io.cucumber.java.ParameterType;
+import io.cucumber.java.en.Then;
+import java.util.Map;
+
+/**
+ * Step definitions for performance budgets
+ * Timings are read from the browser for the page currently shown; a budget failure is reported
+ * as such in the Extent report and fails the step with PerformanceBudget.BudgetExceededError
+ */
+public class PerformanceBudgetSteps extends BaseTest {
+
+    /**
+     * Durations such as "2000 ms" or "1.5 s", converted to milliseconds
+     */
+    @ParameterType("(\\d+(?:\\.\\d+)?)\\s*(ms|s)")
+    public Double duration(String amount, String unit) {
+        double value = Double.parseDouble(amount);
+        return unit.equals("s") ? value * 1000 : value;
+    }
+
+    /**
+     * Page objects that have budgets in config (budget.<PageClass>.<metric>)
+     */
+    @ParameterType("home|search results|product details")
+    public Class<?> pageObject(String page) {
+        switch (page) {
+            case "home":
+                return AmazonHomePage.class;
+            case "search results":
+                return AmazonSearchResultsPage.class;
+            default:
+                return AmazonProductDetailsPage.class;
+        }
+    }
+
+    @Then("the page should load within {duration}")
+    public void the_page_should_load_within(Double budgetMs) {
+        // No page object here, so the budget and its failures are named after the page shown
+        check("Page load", () -> PerformanceBudget.forPage(getDriver().getCurrentUrl())
+                .assertWithin(getDriver(), "loadMs", budgetMs));
+    }
+
+    @Then("the search results should render within {duration}")
+    public void the_search_results_should_render_within(Double budgetMs) {
+        check("Search results render", () -> PerformanceBudget.forPage(AmazonSearchResultsPage.class)
+                .assertWithin(getDriver(), "renderMs", budgetMs));
+    }
+
+    @Then("the {pageObject} page should meet its performance budget")
+    public void the_page_should_meet_its_performance_budget(Class<?> pageObject) {
+        PerformanceBudget budget = PerformanceBudget.forPage(pageObject);
+        check(pageObject.getSimpleName() + " budget " + budget.getBudgets(), () -> budget.assertWithinBudgets(getDriver()));
+    }
+
+    private interface BudgetCheck {
+        Map<String, Double> run();
+    }
+
+    private void check(String description, BudgetCheck budgetCheck) {
+        int violationsBefore = PerformanceBudget.violationCount();
+        try {
+            Map<String, Double> measured = budgetCheck.run();
+            if (PerformanceBudget.violationCount() > violationsBefore) {
+                // budget.enforce=false: recorded, not thrown, but not a pass either
+                ExtentReportBase.logBudgetFail(description + " not met (not enforced): measured "
+                        + PerformanceBudget.format(measured));
+                return;
+            }
+            ExtentReportBase.logPass(description + " within budget (measured " + PerformanceBudget.format(measured) + ")");
+        } catch (PerformanceBudget.BudgetExceededError e) {
+            ExtentReportBase.logBudgetFail(e.getMessage());
+            throw e;
+        }
+    }
+}
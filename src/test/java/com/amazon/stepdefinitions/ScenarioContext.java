@@ -0,0 +1,112 @@
+package com.amazon.stepdefinitions;
+
+import com.amazon.utilities.BrowserInteractionUtility;
+import com.amazon.utilities.FrameworkConfig;
+import io.cucumber.java.Scenario;
+import java.util.Map;
+
+/**
+ * Per-thread state for the scenario currently running on this thread
+ * Shared by Hooks and step definitions, so parallel scenarios never see each other's browser,
+ * and holds the test data record a data-driven runner expanded the scenario with
+ */
+public final class ScenarioContext {
+    private static final ThreadLocal<Map<String, String>> testData = new ThreadLocal<>();
+    private static final ThreadLocal<BrowserInteractionUtility> browserInteraction = new ThreadLocal<>();
+    private static final ThreadLocal<Scenario> scenario = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> keepBrowser = new ThreadLocal<>();
+
+    private ScenarioContext() {
+    }
+
+    /**
+     * Start scenario on this thread
+     */
+    public static void start(Scenario currentScenario, BrowserInteractionUtility currentBrowserInteraction) {
+        scenario.set(currentScenario);
+        browserInteraction.set(currentBrowserInteraction);
+    }
+
+    /**
+     * Clear scenario state of this thread (test data is owned by the runner)
+     */
+    public static void finish() {
+        scenario.remove();
+        browserInteraction.remove();
+    }
+
+    /**
+     * Get scenario running on this thread
+     */
+    public static Scenario getScenario() {
+        return scenario.get();
+    }
+
+    /**
+     * Get BrowserInteractionUtility bound to this thread's driver
+     */
+    public static BrowserInteractionUtility getBrowserInteraction() {
+        return browserInteraction.get();
+    }
+
+    /**
+     * Set test data record for the scenario on this thread
+     */
+    public static void setTestData(Map<String, String> record) {
+        testData.set(record);
+    }
+
+    /**
+     * Get test data record, or null when the scenario is not data-driven
+     */
+    public static Map<String, String> getTestData() {
+        return testData.get();
+    }
+
+    /**
+     * Get single field of the test data record
+     */
+    public static String getTestData(String field) {
+        Map<String, String> record = testData.get();
+        if (record == null) {
+            throw new IllegalStateException("No test data for this scenario; run it through CucumberDataDrivenRunnerTest");
+        }
+        return record.get(field);
+    }
+
+    /**
+     * Scenario name with the record's testData.keyField value, e.g. "Add product to cart [laptop]",
+     * so the runs of one data-driven scenario can be told apart; the plain name without a record
+     */
+    public static String displayName(String scenarioName, Map<String, String> record) {
+        if (record == null) {
+            return scenarioName;
+        }
+        return scenarioName + " [" + record.get(FrameworkConfig.get().getProperty("testData.keyField", "productName")) + "]";
+    }
+
+    /**
+     * Clear test data record once the scenario finished
+     */
+    public static void clearTestData() {
+        testData.remove();
+    }
+
+    /**
+     * Keep this thread's browser open if the scenario fails, for the next rerun attempt
+     */
+    public static void setKeepBrowser(boolean keep) {
+        if (keep) {
+            keepBrowser.set(Boolean.TRUE);
+        } else {
+            keepBrowser.remove();
+        }
+    }
+
+    /**
+     * Check if Hooks should leave this thread's browser open after a failed scenario
+     */
+    public static boolean isKeepBrowser() {
+        return Boolean.TRUE.equals(keepBrowser.get());
+    }
+}
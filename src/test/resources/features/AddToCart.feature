@@ -3,8 +3,10 @@ Feature: Amazon Add to Cart Functionality
   @smoke
   Scenario: User adds a product to cart from Amazon website
     Given User is on Amazon home page
+    Then the page should load within 10 s
     When User searches for "laptop"
     Then Search results should be displayed
+    And the search results should render within 8 s
     When User clicks on first product
     And User adds product to cart
     Then Product should be added to cart
@@ -12,8 +14,20 @@ Feature: Amazon Add to Cart Functionality
   @regression
   Scenario: User adds multiple products to cart
     Given User is on Amazon home page
+    And the home page should meet its performance budget
     When User searches for "mobile phone"
     Then Search results should be displayed
+    And the search results page should meet its performance budget
     When User clicks on first product
     And User adds product to cart
     Then Product should be added to cart
+
+  @datadriven
+  Scenario: User adds each product from test data to cart
+    Given User is on Amazon home page
+    When User searches for the product from test data
+    Then Search results should be displayed
+    When User clicks on first product
+    And User sets quantity from test data
+    And User adds product to cart
+    Then Product should be added to cart